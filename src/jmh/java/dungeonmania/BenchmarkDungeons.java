@@ -0,0 +1,91 @@
+package dungeonmania;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import dungeonmania.util.FileLoader;
+import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
+
+/*
+ * Generated dungeons for the benchmarks.
+ * A dungeon is a maze from DungeonGenerator with the player in one corner, the
+ * exit in the other and enemies scattered over the open cells. The same
+ * arguments always give the same dungeon.
+ */
+final class BenchmarkDungeons {
+    static final long SEED = 42;
+    static final String CONFIG = "simple";
+
+    private BenchmarkDungeons() {
+    }
+
+    /**
+     * the simple config with a player that survives every battle and no spawning,
+     * so the number of enemies only goes down when the player defeats them
+     */
+    static GameConfig config() throws IOException {
+        JSONObject json = new JSONObject(FileLoader.loadResourceFile("configs/" + CONFIG + ".json"));
+        json.put("player_health", 1_000_000);
+        json.put("spider_spawn_rate", 0);
+        json.put("zombie_spawn_rate", 0);
+        return GameConfig.parse("benchmark", json);
+    }
+
+    /**
+     * @param size width and height of the maze
+     * @param enemyCount enemies to place, fewer if the maze has no room for them
+     * @param mercenaryRatio share of the enemies that are mercenaries, the rest are zombies
+     * @return the dungeon
+     */
+    static DungeonTemplate dungeon(int size, int enemyCount, double mercenaryRatio) {
+        boolean[][] maze = new DungeonGenerator(new boolean[size + 1][size + 1], size, size, new SeededRandom(SEED))
+                .generateMaze();
+
+        JSONArray entities = new JSONArray();
+        List<Position> open = new ArrayList<>();
+        for (int x = 0; x < maze.length; x++) {
+            for (int y = 0; y < maze[0].length; y++) {
+                if (x == 1 && y == 1) {
+                    entities.put(entity("player", x, y));
+                } else if (x == size - 1 && y == size - 1) {
+                    entities.put(entity("exit", x, y));
+                } else if (! maze[x][y]) {
+                    entities.put(entity("wall", x, y));
+                } else {
+                    open.add(new Position(x, y));
+                }
+            }
+        }
+
+        Collections.shuffle(open, new Random(SEED));
+        int enemies = Math.min(enemyCount, open.size());
+        int mercenaries = (int) Math.round(enemies * mercenaryRatio);
+        for (int i = 0; i < enemies; i++) {
+            Position position = open.get(i);
+            String type = i < mercenaries ? "mercenary" : "zombie_toast";
+            entities.put(entity(type, position.getX(), position.getY()));
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("entities", entities);
+        json.put("goal-condition", new JSONObject().put("goal", "exit"));
+        return DungeonTemplate.parse("benchmark_" + size, json);
+    }
+
+    static DungeonManiaController newGame(int size, int enemyCount, double mercenaryRatio) throws IOException {
+        DungeonManiaController controller = new DungeonManiaController();
+        controller.newGame(dungeon(size, enemyCount, mercenaryRatio), config(), SEED);
+        return controller;
+    }
+
+    private static JSONObject entity(String type, int x, int y) {
+        return new JSONObject().put("type", type).put("x", x).put("y", y);
+    }
+}
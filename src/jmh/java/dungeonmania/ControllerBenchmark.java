@@ -0,0 +1,202 @@
+package dungeonmania;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import dungeonmania.entities.Player;
+import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.items.Arrow;
+import dungeonmania.items.InvinciblePotion;
+import dungeonmania.items.Wood;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.Direction;
+
+/*
+ * Throughput of the controller operations on generated dungeons.
+ * Every iteration starts a new game, so iterations do the same work however
+ * long the benchmark runs. Run with "gradle jmh", which also reports the
+ * allocation rate of each operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+    private static final Direction[] MOVES = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+    private static final Gson GSON = new Gson();
+
+    @State(Scope.Thread)
+    public static class Game {
+        @Param({"10", "30", "60"})
+        int mapSize;
+
+        @Param({"0", "10", "40"})
+        int enemyCount;
+
+        @Param({"0.0", "0.5", "1.0"})
+        double mercenaryRatio;
+
+        DungeonManiaController controller;
+        int tick;
+        // saves go to a store of their own, never to the players' saves
+        Path saves;
+
+        @Setup(Level.Iteration)
+        public void newGame() throws IOException {
+            controller = BenchmarkDungeons.newGame(mapSize, enemyCount, mercenaryRatio);
+            saves = Files.createTempDirectory("benchmark");
+            controller.useSaveStore(SaveStore.open(saves.resolve(SaveStore.FILE_NAME)));
+            tick = 0;
+            prepare();
+        }
+
+        @TearDown(Level.Iteration)
+        public void endGame() throws IOException {
+            controller.close();
+            Files.deleteIfExists(saves.resolve(SaveStore.FILE_NAME));
+            Files.delete(saves);
+        }
+
+        // set up anything else the benchmark needs once the game has started
+        void prepare() {
+        }
+
+        Direction nextMove() {
+            return MOVES[tick++ % MOVES.length];
+        }
+
+        Player player() {
+            return controller.getDungeon().getPlayer();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PotionGame extends Game {
+        String potionId;
+
+        @Setup(Level.Invocation)
+        public void givePotion() {
+            InvinciblePotion potion = new InvinciblePotion(player().getPosition(), "invincibility_potion", 1);
+            player().addItem(potion);
+            potionId = potion.getId();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CraftingGame extends Game {
+        @Setup(Level.Invocation)
+        public void giveBowMaterials() {
+            player().addItem(new Wood(player().getPosition(), "wood"));
+            for (int i = 0; i < 3; i++) {
+                player().addItem(new Arrow(player().getPosition(), "arrow"));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RewindGame extends Game {
+        @Setup(Level.Invocation)
+        public void playTick() {
+            controller.tick(nextMove());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SavedGame extends Game {
+        static final String NAME = "benchmark";
+
+        @Override
+        void prepare() {
+            controller.saveGame(NAME);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Generator {
+        @Param({"10", "30", "60"})
+        int mapSize;
+
+        DungeonManiaController controller;
+
+        // generating adds to the current dungeon, so each maze gets a new controller
+        @Setup(Level.Invocation)
+        public void newController() {
+            controller = new DungeonManiaController();
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeController() {
+            controller.close();
+        }
+    }
+
+    @Benchmark
+    public DungeonResponse tickMovement(Game game) {
+        return game.controller.tick(game.nextMove());
+    }
+
+    @Benchmark
+    public DungeonResponse tickItem(PotionGame game) throws InvalidActionException {
+        return game.controller.tick(game.potionId);
+    }
+
+    @Benchmark
+    public DungeonResponse build(CraftingGame game) throws InvalidActionException {
+        return game.controller.build("bow");
+    }
+
+    @Benchmark
+    public DungeonResponse rewind(RewindGame game) {
+        return game.controller.rewind(1);
+    }
+
+    @Benchmark
+    public String responseGson(Game game) {
+        return GSON.toJson(game.controller.getDungeonResponseModel());
+    }
+
+    @Benchmark
+    public void responseStreamed(Game game) throws IOException {
+        JsonWriter out = GSON.newJsonWriter(Writer.nullWriter());
+        game.controller.writeDungeonResponseModel(out);
+        out.flush();
+    }
+
+    @Benchmark
+    public DungeonResponse saveGame(Game game) {
+        return game.controller.saveGame(SavedGame.NAME);
+    }
+
+    @Benchmark
+    public DungeonResponse loadGame(SavedGame game) {
+        return game.controller.loadGame(SavedGame.NAME);
+    }
+
+    @Benchmark
+    public DungeonResponse generateDungeon(Generator generator) {
+        // the same maze every time, so runs can be compared
+        return generator.controller.generateDungeon(0, 0, generator.mapSize, generator.mapSize, BenchmarkDungeons.CONFIG,
+                BenchmarkDungeons.SEED);
+    }
+}
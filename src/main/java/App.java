@@ -1,19 +1,40 @@
 import spark.Request;
+import spark.Response;
+import spark.ResponseTransformer;
 import spark.Spark;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 import spark.servlet.SparkApplication;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
+import dungeonmania.Action;
 import dungeonmania.DungeonManiaController;
+import dungeonmania.SessionRegistry;
 import dungeonmania.exceptions.InvalidActionException;
 import dungeonmania.response.models.GenericResponseWrapper;
 import dungeonmania.util.Direction;
+import dungeonmania.util.ResourceCatalogue;
+import dungeonmania.util.VirtualThreads;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.eclipse.jetty.util.thread.ExecutorThreadPool;
+
 import scintilla.Scintilla;
 
 /**
@@ -27,27 +48,46 @@ import scintilla.Scintilla;
  *         Chloe Cheong, Webster Zhang, Sienna Archer
  */
 public class App implements SparkApplication {
-    private final class InvalidActionExceptionAPI extends RuntimeException {
+    private static final class InvalidActionExceptionAPI extends RuntimeException {
         public InvalidActionExceptionAPI(String message) {
             super(message);
         }
     }
-    private static volatile Map<String, DungeonManiaController> sessionStates = new HashMap<>();
+    private static final String SETTING_PREFIX = "dungeonmania:";
+    // returned by routes that wrote their response themselves
+    private static final Object STREAMED = new Object();
+
+    // games by session, requests from different sessions run in parallel
+    private static final SessionRegistry sessions = new SessionRegistry(getSetting("MAX_SESSIONS", 10000),
+            TimeUnit.MINUTES.toMillis(getSetting("SESSION_IDLE_MINUTES", 60)));
+
+    private static int getSetting(String name, int defaultValue) {
+        try {
+            return Integer.parseInt(System.getenv(SETTING_PREFIX + name));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // every request gets a virtual thread of its own instead of a pooled platform thread
+    private static void useVirtualThreads() {
+        if (!VirtualThreads.isAvailable()) {
+            System.out.println("Virtual threads need JDK 21 or later, using the default thread pool.");
+            return;
+        }
+        ThreadPoolExecutor requests = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), VirtualThreads.factory());
+        EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY,
+                new EmbeddedJettyFactory().withThreadPool(new ExecutorThreadPool(requests, 0)));
+    }
 
-    private static synchronized DungeonManiaController getDungeonManiaController(Request request) {
+    private static String getSessionId(Request request) {
         String session = request.session().id();
         if (session == null) {
             System.out.println("No Session Found... using default.");
             session = "__DEFAULT_SESSION__";
         }
-
-        if (sessionStates.containsKey(session)) {
-            return sessionStates.get(session);
-        } else {
-            DungeonManiaController bc = new DungeonManiaController();
-            sessionStates.put(session, bc);
-            return bc;
-        }
+        return session;
     }
 
     private static<T> GenericResponseWrapper<T> callWithWrapper(Supplier<T> runnable) {
@@ -61,28 +101,124 @@ public class App implements SparkApplication {
 
     private static<T> GenericResponseWrapper<T> callUsingSessionAndArgument(Request request, Function<DungeonManiaController, T> runnable) {
         try {
-            DungeonManiaController dmc = getDungeonManiaController(request);
-            synchronized (dmc) {
-                return GenericResponseWrapper.Ok(runnable.apply(dmc));
+            return GenericResponseWrapper.Ok(sessions.call(getSessionId(request), runnable));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return GenericResponseWrapper.Err(e);
+        }
+    }
+
+    // clients opt in to deltas by sending the version they have as "since"
+    private static Long getSince(Request request) {
+        String since = request.queryParams("since");
+        return since == null ? null : Long.parseLong(since);
+    }
+
+    // new games are random unless the client sends a "seed" to replay one
+    private static Long getSeed(Request request) {
+        String seed = request.queryParams("seed");
+        return seed == null ? null : Long.parseLong(seed);
+    }
+
+    /*
+     * Full game states are written as JSON straight from the game by the
+     * session's consumer, but into memory: a slow client must not hold up the
+     * session, and a failure while writing must not leave half a body behind.
+     * The request's own thread then sends the bytes with send(). The buffer
+     * starts as big as the session's last body, so it rarely has to grow.
+     */
+    private static JsonBody stream(Gson gson, DungeonManiaController dmc) {
+        JsonBody body = new JsonBody(dmc.getResponseSizeHint());
+        try {
+            JsonWriter out = gson.newJsonWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+            out.beginObject().name("result");
+            dmc.writeDungeonResponseModel(out);
+            out.name("isError").value(false).endObject();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        dmc.setResponseSizeHint(body.size());
+        return body;
+    }
+
+    private static final class JsonBody extends ByteArrayOutputStream {
+        // a little headroom, so a body that grew by a few bytes still fits
+        JsonBody(int sizeHint) {
+            super(Math.max(32, sizeHint + sizeHint / 8));
+        }
+    }
+
+    private static Object send(Response response, JsonBody body) {
+        response.type("application/json");
+        allowCrossOrigin(response);
+        try {
+            OutputStream out = response.raw().getOutputStream();
+            body.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            // the response may already be committed, an error body now would only corrupt it
+            e.printStackTrace();
+        }
+        return STREAMED;
+    }
+
+    private static void allowCrossOrigin(Response response) {
+        response.header("Access-Control-Allow-Origin", "*");
+        response.header("Access-Control-Allow-Methods", "*");
+        response.header("Access-Control-Allow-Headers", "*");
+    }
+
+    // wait for the session to answer, unless the answer is a written body it is wrapped
+    private static Object await(Response response, Supplier<CompletableFuture<?>> call) {
+        try {
+            Object result = call.get().join();
+            if (result instanceof JsonBody) {
+                return send(response, (JsonBody) result);
+            }
+            return GenericResponseWrapper.Ok(result);
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+            if (e.getCause() instanceof InvalidActionException) {
+                return GenericResponseWrapper.Err(new InvalidActionExceptionAPI(e.getCause().getMessage()));
             }
+            return GenericResponseWrapper.Err(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
         } catch (Exception e) {
             e.printStackTrace();
             return GenericResponseWrapper.Err(e);
         }
     }
 
+    // commands go through the session mailbox, so queued moves are applied in one batch
+    private static Object callUsingSessionAndAction(Request request, Response response, Gson gson, Supplier<Action> action) {
+        return await(response, () -> {
+            Long since = getSince(request);
+            if (since != null) {
+                return sessions.send(getSessionId(request), action.get(), (dmc, res) -> dmc.getDungeonDelta(res, since));
+            }
+            return sessions.sendThen(getSessionId(request), action.get(), (dmc) -> stream(gson, dmc));
+        });
+    }
+
     @Override
     public void init() {
+        if (getSetting("VIRTUAL_THREADS", 0) != 0) {
+            useVirtualThreads();
+        }
         Scintilla.initialize(); 
+        // scan the resource folders once up front instead of on the first requests
+        ResourceCatalogue.preload("dungeons", "configs", "saves");
+        sessions.start();
         GsonBuilder gsonBuilder = new GsonBuilder();
 
         Gson gson = gsonBuilder.create();
         Object globalLock = new Object();
 
+        // streamed responses have already been written
+        ResponseTransformer json = model -> model == STREAMED ? "" : gson.toJson(model);
+
         Spark.after((request, response) -> {
-            response.header("Access-Control-Allow-Origin", "*");
-            response.header("Access-Control-Allow-Methods", "*");
-            response.header("Access-Control-Allow-Headers", "*");
+            allowCrossOrigin(response);
         });
 
         Spark.get("/api/dungeons/", "application/json", (request, response) -> {
@@ -99,33 +235,49 @@ public class App implements SparkApplication {
             }
         }, gson::toJson);
 
-        Spark.post("/api/game/new/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> dmc.newGame(request.queryParams("dungeonName"), request.queryParams("configName")));
+        Spark.get("/api/sessions/metrics/", "application/json", (request, response) -> {
+            return callWithWrapper(() -> sessions.getMetrics());
         }, gson::toJson);
 
-        Spark.post("/api/game/tick/item/", "application/json", (request, response) -> {
+        Spark.post("/api/game/new/", "application/json", (request, response) -> {
             return callUsingSessionAndArgument(request, (dmc) -> {
-                try {
-                    return dmc.tick(request.queryParams("itemUsed"));
-                } catch (InvalidActionException e) {
-                    throw new InvalidActionExceptionAPI(e.getMessage());
+                Long seed = getSeed(request);
+                if (seed != null) {
+                    return dmc.newGame(request.queryParams("dungeonName"), request.queryParams("configName"), seed);
                 }
+                return dmc.newGame(request.queryParams("dungeonName"), request.queryParams("configName"));
             });
         }, gson::toJson);
 
+        Spark.post("/api/game/tick/item/", "application/json", (request, response) -> {
+            return callUsingSessionAndAction(request, response, gson, () -> Action.use(request.queryParams("itemUsed")));
+        }, json);
+
         Spark.post("/api/game/tick/movement/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> dmc.tick(Direction.valueOf(request.queryParams("movementDirection").toUpperCase())));
-        }, gson::toJson);
+            return callUsingSessionAndAction(request, response, gson, () -> Action.move(Direction.valueOf(request.queryParams("movementDirection").toUpperCase())));
+        }, json);
 
-        Spark.post("/api/game/build/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> {
-                try {
-                    return dmc.build(request.queryParams("buildable"));
-                } catch (InvalidActionException e) {
-                    throw new InvalidActionExceptionAPI(e.getMessage());
-                }
+        Spark.post("/api/game/tick/batch/", "application/json", (request, response) -> {
+            return await(response, () -> {
+                List<Action> actions = Action.parseAll(request.queryParams("actions"));
+                boolean battles = Boolean.parseBoolean(request.queryParams("battles"));
+                Long since = getSince(request);
+                return sessions.submit(getSessionId(request), (dmc) -> {
+                    try {
+                        if (since != null) {
+                            return dmc.tickBatch(actions, battles, since);
+                        }
+                        return dmc.tickBatch(actions, battles);
+                    } catch (InvalidActionException e) {
+                        throw new CompletionException(e);
+                    }
+                });
             });
-        }, gson::toJson);
+        }, json);
+
+        Spark.post("/api/game/build/", "application/json", (request, response) -> {
+            return callUsingSessionAndAction(request, response, gson, () -> Action.build(request.queryParams("buildable")));
+        }, json);
 
         Spark.get("/api/skin/current/", "application/json", (request, response) -> {
             return callUsingSessionAndArgument(request, (dmc) -> dmc.getSkin());
@@ -136,18 +288,18 @@ public class App implements SparkApplication {
         }, gson::toJson);
 
         Spark.post("/api/game/interact/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> {
-                try {
-                    return dmc.interact(request.queryParams("entityId"));
-                } catch (InvalidActionException e) {
-                    throw new InvalidActionExceptionAPI(e.getMessage());
-                }
-            });
-        }, gson::toJson);
+            return callUsingSessionAndAction(request, response, gson, () -> Action.interact(request.queryParams("entityId")));
+        }, json);
 
         Spark.post("/api/game/dungeonResponseModel/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> dmc.getDungeonResponseModel());
-        }, gson::toJson);
+            return await(response, () -> {
+                Long since = getSince(request);
+                if (since != null) {
+                    return sessions.submit(getSessionId(request), (dmc) -> dmc.getDungeonDelta(since));
+                }
+                return sessions.submit(getSessionId(request), (dmc) -> stream(gson, dmc));
+            });
+        }, json);
 
         Spark.post("api/game/save/", "application/json", (request, response) -> {
             return callUsingSessionAndArgument(request, (dmc) -> dmc.saveGame(request.queryParams("name")));
@@ -166,9 +318,17 @@ public class App implements SparkApplication {
         }, gson::toJson);
 
         Spark.post("/api/game/new/generate/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> dmc.generateDungeon(Integer.parseInt(request.queryParams("xStart")), 
-            Integer.parseInt(request.queryParams("yStart")), Integer.parseInt(request.queryParams("xEnd")),
-            Integer.parseInt(request.queryParams("yEnd")), request.queryParams("configName")));
+            return callUsingSessionAndArgument(request, (dmc) -> {
+                int xStart = Integer.parseInt(request.queryParams("xStart"));
+                int yStart = Integer.parseInt(request.queryParams("yStart"));
+                int xEnd = Integer.parseInt(request.queryParams("xEnd"));
+                int yEnd = Integer.parseInt(request.queryParams("yEnd"));
+                Long seed = getSeed(request);
+                if (seed != null) {
+                    return dmc.generateDungeon(xStart, yStart, xEnd, yEnd, request.queryParams("configName"), seed);
+                }
+                return dmc.generateDungeon(xStart, yStart, xEnd, yEnd, request.queryParams("configName"));
+            });
         }, gson::toJson);
 
         Scintilla.start();
@@ -0,0 +1,112 @@
+package dungeonmania;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import dungeonmania.util.Direction;
+
+/*
+ * One thing the player does: move, use an item, build or interact.
+ * Written as text, an action is one line such as "move UP", "use bomb",
+ * "build bow" or "interact 12", so move scripts can be kept in plain files.
+ */
+public final class Action {
+    public enum Kind {
+        MOVE, USE, BUILD, INTERACT
+    }
+
+    private final Kind kind;
+    private final Direction direction;
+    // item id or type, buildable, or entity id
+    private final String target;
+
+    private Action(Kind kind, Direction direction, String target) {
+        this.kind = kind;
+        this.direction = direction;
+        this.target = target;
+    }
+
+    public static Action move(Direction direction) {
+        return new Action(Kind.MOVE, direction, null);
+    }
+
+    /**
+     * @param item id of an item in the inventory, or an item type to use the first one of,
+     *             see DungeonManiaController.apply
+     */
+    public static Action use(String item) {
+        return new Action(Kind.USE, null, item);
+    }
+
+    public static Action build(String buildable) {
+        return new Action(Kind.BUILD, null, buildable);
+    }
+
+    public static Action interact(String entityId) {
+        return new Action(Kind.INTERACT, null, entityId);
+    }
+
+    /**
+     * @param line e.g. "move UP"
+     * @return the action
+     * @throws IllegalArgumentException if the line is not an action
+     */
+    public static Action parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid action: " + line);
+        }
+        switch (parts[0].toLowerCase(Locale.ROOT)) {
+            case "move":
+                return move(Direction.valueOf(parts[1].toUpperCase(Locale.ROOT)));
+            case "use":
+                return use(parts[1]);
+            case "build":
+                return build(parts[1]);
+            case "interact":
+                return interact(parts[1]);
+            default:
+                throw new IllegalArgumentException("Invalid action: " + line);
+        }
+    }
+
+    /**
+     * @param script actions one per line, or separated by commas or semicolons
+     * @return the actions in order, blank entries are skipped
+     * @throws IllegalArgumentException if an entry is not an action
+     */
+    public static List<Action> parseAll(String script) {
+        List<Action> actions = new ArrayList<>();
+        for (String line: script.split("[\\r\\n,;]+")) {
+            if (!line.isBlank()) {
+                actions.add(parse(line));
+            }
+        }
+        return actions;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return true if the action moves the game on a tick
+     */
+    public boolean isTick() {
+        return kind == Kind.MOVE || kind == Kind.USE;
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase(Locale.ROOT) + " " + (kind == Kind.MOVE ? direction : target);
+    }
+}
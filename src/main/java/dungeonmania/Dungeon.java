@@ -1,34 +1,63 @@
 package dungeonmania;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import dungeonmania.battles.Battle;
-import dungeonmania.enemy.Assassin;
 import dungeonmania.enemy.Enemy;
-import dungeonmania.enemy.Mercenary;
 import dungeonmania.entities.Entity;
+import dungeonmania.entities.Exit;
 import dungeonmania.entities.FloorSwitch;
 import dungeonmania.entities.Player;
 import dungeonmania.entities.ZombieToastSpawner;
 import dungeonmania.goals.AndGoal;
+import dungeonmania.goals.GoalEvent;
 import dungeonmania.goals.GoalsInterface;
 import dungeonmania.goals.OrGoal;
 import dungeonmania.items.ItemEntity;
+import dungeonmania.pathing.Chaser;
+import dungeonmania.pathing.DistanceField;
+import dungeonmania.pathing.PathGrid;
 import dungeonmania.response.models.AnimationQueue;
+import dungeonmania.util.IdAllocator;
 import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
 import dungeonmania.weapon.Sceptre;
-public class Dungeon implements Serializable, Cloneable {
+public class Dungeon implements Serializable, Cloneable, Saveable {
+    // ids of the saved classes are pinned to those of the first release, so games it saved still load
+    private static final long serialVersionUID = 862563867309607842L;
+
     private EntityFactory factory = new EntityFactory();
     private List<Entity> entities = new ArrayList<>();
     private List<Enemy> enemies = new ArrayList<>();
     private List<ItemEntity> inventory = new ArrayList<>();
+    // read only views handed out by the getters, the lists never hold null
+    private transient List<Entity> entitiesView = Collections.unmodifiableList(entities);
+    private transient List<Enemy> enemiesView = Collections.unmodifiableList(enemies);
+    private transient List<ItemEntity> itemsView = Collections.unmodifiableList(inventory);
+    // cell-keyed lookups mirroring entities, enemies and inventory
+    // rebuilt from the lists when a game is loaded
+    private transient SpatialIndex<Entity> entityIndex = new SpatialIndex<>();
+    private transient SpatialIndex<Enemy> enemyIndex = new SpatialIndex<>();
+    private transient SpatialIndex<ItemEntity> itemIndex = new SpatialIndex<>();
+    // type-keyed lookups over the same lists, also rebuilt when a game is loaded
+    private transient TypeIndex<Entity> entityTypes = new TypeIndex<>();
+    private transient TypeIndex<Enemy> enemyTypes = new TypeIndex<>();
+    private transient TypeIndex<ItemEntity> itemTypes = new TypeIndex<>();
+    // enemies on the player's side, kept up to date as enemies change sides
+    private transient Set<Enemy> allies = new LinkedHashSet<>();
     private List<String> buildables = new ArrayList<>();
     // private HealthBar healthBar;
     // private double intialPlayerHealth;
@@ -55,38 +84,72 @@ public class Dungeon implements Serializable, Cloneable {
     private String goals = "";
     private GoalsInterface superGoal;
 
-    private List<HashMap<String, List<Object>>> gameStates = new ArrayList<>();
+    // ticks of history kept in memory before older ticks are archived to disk,
+    // must stay above the 30 ticks a time travelling portal rewinds
+    public static final int DEFAULT_HISTORY_CAPACITY = 64;
+    private int historyCapacity = DEFAULT_HISTORY_CAPACITY;
+    // rewind history is not saved, a loaded game starts a new history
+    private transient StateJournal journal = new StateJournal(DEFAULT_HISTORY_CAPACITY);
+
+    // every random choice in the game draws from this, so a seeded game replays the same way
+    private SeededRandom random = new SeededRandom(SeededRandom.newSeed());
+    // ids of this dungeon's entities, saved with it so loaded games carry on counting
+    private IdAllocator ids = new IdAllocator();
+
+    // distance fields to the player shared by chasers while enemies move,
+    // null outside of non_player_acions
+    private transient Map<Class<?>, DistanceField> distanceFields;
+    // the enemies moving this tick, reused so moving them makes no garbage
+    private transient List<Enemy> moving = new ArrayList<>();
 
     public void createNewDungeon(JSONObject json, JSONObject configJson) {
-        this.ZombieAttack = (double) configJson.getInt("zombie_attack");
-        this.ZombieHealth = (double) configJson.getInt("zombie_health");
-        this.SpiderAttack = (double) configJson.getInt("spider_attack");
-        this.SpiderHealth = (double) configJson.getInt("spider_health");
+        createNewDungeon(json, GameConfig.parse("", configJson));
+    }
+
+    public void createNewDungeon(JSONObject json, GameConfig config) {
+        this.ZombieAttack = config.getZombieAttack();
+        this.ZombieHealth = config.getZombieHealth();
+        this.SpiderAttack = config.getSpiderAttack();
+        this.SpiderHealth = config.getSpiderHealth();
         // this.intialPlayerHealth = (double) configJson.getInt("player_health");
-        this.spiderSpawnRate = configJson.getInt("spider_spawn_rate");
-        this.zombieSpawnRate = configJson.getInt("zombie_spawn_rate");
+        this.spiderSpawnRate = config.getSpiderSpawnRate();
+        this.zombieSpawnRate = config.getZombieSpawnRate();
         this.zombieSpawnCounter = zombieSpawnRate - 1;
         this.spiderSpawner = new SpiderSpawner(spiderSpawnRate);
-        createEntities(json, configJson);
+        this.historyCapacity = config.getHistoryCapacity();
+        closeHistory();
+        this.journal = new StateJournal(historyCapacity);
+        createEntities(json, config);
         // if (this.checkPlayer()) {
         //     this.healthBar = new HealthBar(this);
         // }
         calcDungeonLimits();
     }
 
-    public void createEntities(JSONObject json, JSONObject configJson) {
+    public void createEntities(JSONObject json, GameConfig config) {
         JSONArray entitiesObj = (JSONArray) json.get("entities");
         for (int i = 0; i < entitiesObj.length(); i++) {
             JSONObject entity = entitiesObj.getJSONObject(i);
             String type = entity.getString("type");
             Position position = new Position(entity.getInt("x"), entity.getInt("y"));
-            entities.add(factory.createEntity(entity, configJson, type, position));
-            enemies.add(factory.createEnemy(configJson, type, position));
-            inventory.add(factory.createItems(entity, configJson, type, position));
-        }
-        for (Entity entity: getEntities()) {
-            if (entity instanceof Player) {
-                this.player = (Player) entity;
+            Entity newEntity = factory.createEntity(entity, config, type, position);
+            Enemy newEnemy = factory.createEnemy(config, type, position);
+            ItemEntity newItem = factory.createItems(entity, config, type, position);
+            // the factory only makes one of the three for a type, the others are null
+            if (newEntity != null) {
+                entities.add(newEntity);
+                track(newEntity, entityIndex, entityTypes);
+                if (newEntity instanceof Player) {
+                    this.player = (Player) newEntity;
+                }
+            }
+            if (newEnemy != null) {
+                enemies.add(newEnemy);
+                trackEnemy(newEnemy);
+            }
+            if (newItem != null) {
+                inventory.add(newItem);
+                track(newItem, itemIndex, itemTypes);
             }
         }
     }
@@ -102,7 +165,9 @@ public class Dungeon implements Serializable, Cloneable {
 
         // get the player in the current dungeon
         Player currPlayer = this.getPlayer();
-        entities.add(currPlayer);
+        if (currPlayer != null) {
+            entities.add(currPlayer);
+        }
         for (Object entity: gamestate.get("entities")) {
             if (((Entity)entity) instanceof Player) {
                 ((Entity)entity).setType("older_player");
@@ -134,6 +199,126 @@ public class Dungeon implements Serializable, Cloneable {
             enemies.add((Enemy)enemy);
         }
         this.enemies = enemies;
+
+        createViews();
+        rebuildIndexes();
+        // nothing cached about the goals holds for the restored state
+        for (GoalEvent event: GoalEvent.values()) {
+            notifyGoals(event);
+        }
+    }
+
+    private <T extends Entity> void track(T entity, SpatialIndex<T> index, TypeIndex<T> types) {
+        if (entity == null) {
+            return;
+        }
+        assignId(entity);
+        entity.setDungeon(this);
+        index.add(entity);
+        types.add(entity);
+        goalsAffectedBy(entity);
+    }
+
+    private void trackEnemy(Enemy enemy) {
+        track(enemy, enemyIndex, enemyTypes);
+        if (enemy.isAlly()) {
+            allies.add(enemy);
+        }
+    }
+
+    // a player, switch or exit joining or leaving can change whether goals are finished
+    private void goalsAffectedBy(Entity entity) {
+        if (entity instanceof Player) {
+            notifyGoals(GoalEvent.ITEM_COLLECTED);
+        } else if (entity instanceof FloorSwitch) {
+            notifyGoals(GoalEvent.SWITCH_TOGGLED);
+        } else if (entity instanceof Exit) {
+            notifyGoals(GoalEvent.EXIT_REACHED);
+        }
+    }
+
+    /**
+     * tell the goals that something they may depend on has changed,
+     * so they look at the game again the next time they are checked
+     * @param event
+     */
+    public void notifyGoals(GoalEvent event) {
+        if (superGoal != null) {
+            superGoal.onEvent(event);
+        }
+    }
+
+    // entities get their id when they first join the dungeon
+    private void assignId(Entity entity) {
+        if (!entity.hasId()) {
+            entity.setId(ids.next());
+        }
+    }
+
+    private void createViews() {
+        entitiesView = Collections.unmodifiableList(entities);
+        enemiesView = Collections.unmodifiableList(enemies);
+        itemsView = Collections.unmodifiableList(inventory);
+    }
+
+    private void rebuildIndexes() {
+        entityIndex.clear();
+        enemyIndex.clear();
+        itemIndex.clear();
+        entityTypes.clear();
+        enemyTypes.clear();
+        itemTypes.clear();
+        allies.clear();
+        for (Entity entity: entities) {
+            track(entity, entityIndex, entityTypes);
+        }
+        for (Enemy enemy: enemies) {
+            trackEnemy(enemy);
+        }
+        for (ItemEntity item: inventory) {
+            track(item, itemIndex, itemTypes);
+        }
+    }
+
+    /**
+     * keep the spatial indexes up to date when an entity changes position
+     * @param entity
+     * @param from
+     * @param to
+     */
+    public void entityMoved(Entity entity, Position from, Position to) {
+        entityIndex.move(entity, from, to);
+        enemyIndex.move(entity, from, to);
+        itemIndex.move(entity, from, to);
+    }
+
+    /**
+     * keep the allies up to date when an enemy is bribed or mind controlled, or turns hostile again,
+     * copies of enemies kept by the history are ignored
+     * @param entity
+     */
+    public void sideChanged(Entity entity) {
+        if (!(entity instanceof Enemy) || !enemyTypes.get(entity.getType()).contains(entity)) {
+            return;
+        }
+        Enemy enemy = (Enemy) entity;
+        if (enemy.isAlly()) {
+            allies.add(enemy);
+        } else {
+            allies.remove(enemy);
+        }
+    }
+
+    /**
+     * keep the type indexes up to date when an entity changes type
+     * @param entity
+     * @param from
+     * @param to
+     */
+    public void entityRetyped(Entity entity, String from, String to) {
+        entityTypes.retype(entity, from, to);
+        enemyTypes.retype(entity, from, to);
+        itemTypes.retype(entity, from, to);
     }
 
     public void addSubgoals(JSONArray subgoalArray, JSONObject json) {
@@ -180,103 +365,149 @@ public class Dungeon implements Serializable, Cloneable {
         this.goals = goals;
     }
 
+    /*
+     * Live read only views of the entities, enemies and items, in the order
+     * they were added. They change as the game does, so copy one before
+     * walking it while entities are added or removed.
+     */
     public List<Entity> getEntities() {
-        return entities.stream().filter(x -> x != null).collect(Collectors.toList());
+        return entitiesView;
     }
 
     public void addEntity(Entity entity) {
+        if (entity == null) {
+            return;
+        }
         entities.add(entity);
+        track(entity, entityIndex, entityTypes);
         if (entity instanceof Player) {
             this.player = (Player) entity;
         }
     }
 
     public List<Enemy> getEnemies() {
-        return enemies.stream().filter(x -> x != null).collect(Collectors.toList());
+        return enemiesView;
     }
     
     public List<ItemEntity> getItems() {
-        return inventory.stream().filter(x -> x != null).collect(Collectors.toList());
+        return itemsView;
+    }
+
+    /**
+     * get the entities of a given type, such as "wall" or "portal"
+     * @param type
+     * @return read only view of the entities of that type, in the order they were added
+     */
+    public Collection<Entity> getEntitiesOfType(String type) {
+        return entityTypes.get(type);
+    }
+
+    public Collection<Enemy> getEnemiesOfType(String type) {
+        return enemyTypes.get(type);
     }
 
     public List<ZombieToastSpawner> getZombieToastSpawners() {
-        List <Entity> entities = getEntities();
+        // a copy, spawning can change the entities while the spawners are walked
         List <ZombieToastSpawner> spawners = new ArrayList<>();
-        for(Entity entity: entities) {
-            if (entity.getType().equals("zombie_toast_spawner")) {
-                spawners.add((ZombieToastSpawner) entity);
-            }
+        for(Entity entity: getEntitiesOfType("zombie_toast_spawner")) {
+            spawners.add((ZombieToastSpawner) entity);
         }
         return spawners;
     }
 
     public void addItem(ItemEntity item) {
+        if (item == null) {
+            return;
+        }
         inventory.add(item);
+        track(item, itemIndex, itemTypes);
     }
 
     public void removeItem(ItemEntity item) {
         inventory.remove(item);
+        itemIndex.remove(item);
+        itemTypes.remove(item);
     }
 
     public void removeEntity(Entity entity) {
         entities.remove(entity);
+        entityIndex.remove(entity);
+        entityTypes.remove(entity);
+        goalsAffectedBy(entity);
     }
 
     public void removeEnemy(Enemy enemy) {
         enemies.remove(enemy);
+        enemyIndex.remove(enemy);
+        enemyTypes.remove(enemy);
+        allies.remove(enemy);
     }
     
     public void explode(Position position) {
-        for (Entity entity: getEntities()) {
-            if (entity.getPosition().equals(position)) {
-                String type = getEntity(position).getType();
-                if (!type.equals("player") && !type.equals("exit") && !type.equals("portal")) {
-                    removeEntity(getEntity(position));    
-                }
+        explode(position.pack());
+    }
+
+    /**
+     * @param position packed with PackedPosition
+     */
+    public void explode(long position) {
+        for (int i = entityIndex.getAt(position).size(); i > 0; i--) {
+            String type = getEntity(position).getType();
+            if (!type.equals("player") && !type.equals("exit") && !type.equals("portal")) {
+                removeEntity(getEntity(position));    
             }
         }
         
-        for (Enemy enemy: getEnemies()) {
-            if (enemy.getPosition().equals(position)) {
-                removeEnemy(getEnemy(position));
-            }
+        for (int i = enemyIndex.getAt(position).size(); i > 0; i--) {
+            removeEnemy(enemyIndex.getFirstAt(position));
         }
 
-        for (ItemEntity item: getItems()) {
-            if (item.getPosition().equals(position)) {
-                String type = getItemEntity(position).getType();
-                if (! type.equals("bomb")) {
-                    removeItem(getItemEntity(position));
-                }
+        for (int i = itemIndex.getAt(position).size(); i > 0; i--) {
+            String type = getItemEntity(position).getType();
+            if (! type.equals("bomb")) {
+                removeItem(getItemEntity(position));
             }
         }
     }
     
     public Entity getEntity(Position position) {
-        for (Entity entity: getEntities()) {
-            if (entity.getPosition().equals(position)) {
-                return entity;
-            }
-        }
-        return null;
+        return entityIndex.getFirstAt(position);
+    }
+
+    /**
+     * @param position packed with PackedPosition
+     * @return the first entity at position, or null
+     */
+    public Entity getEntity(long position) {
+        return entityIndex.getFirstAt(position);
     }
 
     public Enemy getEnemy(Position position) {
-        for (Enemy enemy: getEnemies()) {
-            if (enemy.getPosition().equals(position)) {
-                return enemy;
-            }
-        }
-        return null;
+        return enemyIndex.getFirstAt(position);
     }
 
     public ItemEntity getItemEntity(Position position) {
-        for (ItemEntity item: getItems()) {
-            if (item.getPosition().equals(position)) {
-                return item;
-            }
-        }
-        return null;
+        return itemIndex.getFirstAt(position);
+    }
+
+    public ItemEntity getItemEntity(long position) {
+        return itemIndex.getFirstAt(position);
+    }
+
+    /*
+     * Read only views of what is at a given cell, in the same order as the
+     * entity, enemy and item lists
+     */
+    public List<Entity> getEntitiesAt(Position position) {
+        return entityIndex.getAt(position);
+    }
+
+    public List<Enemy> getEnemiesAt(Position position) {
+        return enemyIndex.getAt(position);
+    }
+
+    public List<ItemEntity> getItemsAt(Position position) {
+        return itemIndex.getAt(position);
     }
 
     public List<String> getBuildables() {
@@ -329,12 +560,13 @@ public class Dungeon implements Serializable, Cloneable {
 
     }
 
-    public void createBuildableItem(String type, JSONObject configJson, Position position) {
+    public void createBuildableItem(String type, GameConfig config, Position position) {
         getReadyToBuild();
         for (String buildable: readyToBuild) {
             if (buildable.equals(type)) {
                 EntityFactory factory = new EntityFactory();
-                ItemEntity item = factory.createBuildableEntity(type, configJson, position);
+                ItemEntity item = factory.createBuildableEntity(type, config, position);
+                assignId(item);
                 if (!(type.equals("sun_stone") && !(type.equals("sceptre")))) {
                     getPlayer().addWeapon(item);
                 }
@@ -351,36 +583,34 @@ public class Dungeon implements Serializable, Cloneable {
     }
 
     public void setPlayer(Player player) {
+        if (player == null) {
+            return;
+        }
         entities.add(player);
+        track(player, entityIndex, entityTypes);
         this.player = player;
     }
 
     public void removePlayer(Player player) {
         entities.remove(player);
+        entityIndex.remove(player);
+        entityTypes.remove(player);
+        goalsAffectedBy(player);
     }
 
     public void addEnemy(Enemy enemy) {
+        if (enemy == null) {
+            return;
+        }
         enemies.add(enemy);
+        trackEnemy(enemy);
     }
 
-    public List<Enemy> getAlliesList() {
-        List<Enemy> allies = new ArrayList<>();
-        for (Enemy e: getEnemies()) {
-            if (e instanceof Mercenary) {
-                Mercenary merc = (Mercenary)e;
-                if (!merc.isHostile()) {
-                    allies.add(merc);
-                }
-            }
-
-            if (e instanceof Assassin) {
-                Assassin a = (Assassin)e;
-                if (!a.isHostile()) {
-                    allies.add(a);
-                }
-            }
-        }
-        return allies;
+    /**
+     * @return read only view of the enemies on the player's side, in the order they joined it
+     */
+    public Collection<Enemy> getAlliesList() {
+        return Collections.unmodifiableSet(allies);
     }
 
     public List<ItemEntity> getInventory() {
@@ -432,10 +662,44 @@ public class Dungeon implements Serializable, Cloneable {
             spiderSpawner.spawn(this);
         }
 
-        // Move all enemies 
-        for (Enemy enemy : getEnemies()) {
-            enemy.move(getEntities(), this);
+        // Move all enemies, including any killed by an earlier one this tick
+        distanceFields = new HashMap<>();
+        moving.clear();
+        for (Enemy enemy : enemies) {
+            moving.add(enemy);
+        }
+        for (Enemy enemy : moving) {
+            enemy.move(entitiesView, this);
         }
+        moving.clear();
+        distanceFields = null;
+    }
+
+    /**
+     * get the distance field to the player for a chaser, built once per tick
+     * for each kind of chaser and shared by all chasers of that kind
+     * @param chaser
+     * @param entities
+     * @param target the player position
+     * @return the distance field, or null when enemies are not being moved
+     */
+    public DistanceField getDistanceField(Chaser chaser, List<Entity> entities, Position target) {
+        if (distanceFields == null) {
+            return null;
+        }
+        DistanceField field = distanceFields.get(chaser.getClass());
+        if (field == null) {
+            // every enemy must be inside the grid to look up its next step
+            List<Enemy> enemies = getEnemies();
+            Position[] include = new Position[enemies.size() + 1];
+            for (int i = 0; i < enemies.size(); i++) {
+                include[i] = enemies.get(i).getPosition();
+            }
+            include[enemies.size()] = target;
+            field = new DistanceField(new PathGrid(entities, chaser::isBlocking, include), target);
+            distanceFields.put(chaser.getClass(), field);
+        }
+        return field;
     }
 
     public void tickSceptre() {
@@ -492,6 +756,7 @@ public class Dungeon implements Serializable, Cloneable {
 
     public void setEnemyGoal(int enemyGoals) {
         this.enemyGoals = enemyGoals;
+        notifyGoals(GoalEvent.ENEMY_KILLED);
     }
 
     public List<Battle> getBattles() {
@@ -507,19 +772,14 @@ public class Dungeon implements Serializable, Cloneable {
         if (player == null) {
             return false;
         }
-        if (! getEntities().contains(player)) {
+        if (! entities.contains(player)) {
             return false;
         }
         return true;
     }
 
     public Player getOlderPlayer() {
-        for (Entity entity: this.getEntities()) {
-            if (entity.getType().equals("older_player")) {
-                return (Player)entity;
-            }
-        }
-        return null;
+        return (Player) entityTypes.getFirst("older_player");
     }
     public int getEnemiesKill() {
         return enemiesKill;
@@ -527,6 +787,7 @@ public class Dungeon implements Serializable, Cloneable {
 
     public void incrementEnemiesKill() {
         this.enemiesKill += 1;
+        notifyGoals(GoalEvent.ENEMY_KILLED);
     }
 
     /*
@@ -537,76 +798,50 @@ public class Dungeon implements Serializable, Cloneable {
     }
 
     public int getSwitchCount() {
-        int count = 0;
-        for (Entity entity: this.getEntities()) {
-            if (entity.getType().equals("switch")) {
-                count++;
-            }
-        }
-        return count;
+        return entityTypes.count("switch");
     }
 
     public void addTriggeredSwitch(FloorSwitch floorSwitch) { 
         switchList.add(floorSwitch);
+        notifyGoals(GoalEvent.SWITCH_TOGGLED);
     }
 
     public void removeTriggeredSwitch(FloorSwitch entity) {
         switchList.remove(entity);
+        notifyGoals(GoalEvent.SWITCH_TOGGLED);
     }
 
-    public void AddGameState() {
-        HashMap<String, List<Object>> gameState= new HashMap<String, List<Object>>();
-        List<Object> entities = new ArrayList<>();
-        List<Object> build = new ArrayList<>();
-        List<Object> enemies = new ArrayList<>();
-        List<Object> battles = new ArrayList<>();
-        List<Object> items = new ArrayList<>();
-        for (Entity entity: this.getEntities()) {
-            try {
-                entities.add(entity.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-
-        }
-        gameState.put("entities", entities);
-
-        for (ItemEntity item: this.getItems()) {
-            try {
-                items.add(item.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
-        gameState.put("items", items);
+    public int getHistoryCapacity() {
+        return historyCapacity;
+    }
 
-        for (String item: this.readyToBuild) {
-            build.add((Object)item);
-        }
-        gameState.put("buildables", build);
+    /**
+     * start the game's random numbers again from a seed
+     * @param seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SeededRandom(seed);
+    }
 
-        for (Battle battle: this.getBattles()) {
-            try {
-                battles.add(battle.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
-        gameState.put("battles", battles);
+    public SeededRandom getRandom() {
+        return random;
+    }
 
-        for (Enemy enemy: this.getEnemies()) {
-            try {
-                enemies.add(enemy.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
-        gameState.put("enemies", enemies);
-        gameStates.add(gameState);
+    public void AddGameState() {
+        journal.record(getEntities(), getEnemies(), getItems(), getBattles(), readyToBuild);
     }
 
     public HashMap<String, List<Object>> getGameState(int tick) {
-        return gameStates.get(tick);
+        return journal.restore(tick);
+    }
+
+    /**
+     * delete the rewind history archived on disk, once the game is no longer played
+     */
+    public void closeHistory() {
+        if (journal != null) {
+            journal.close();
+        }
     }
 
     /*
@@ -642,5 +877,120 @@ public class Dungeon implements Serializable, Cloneable {
     public void rewind(int ticks) {
         HashMap<String, List<Object>> gameState = getGameState(ticks);
         this.setGameState(gameState);
+        journal.invalidate();
     }
-}
\ No newline at end of file
+
+    /**
+     * rebuild the state that is not saved with a game, after the game is loaded
+     */
+    public void restoreTransientState() {
+        entityIndex = new SpatialIndex<>();
+        enemyIndex = new SpatialIndex<>();
+        itemIndex = new SpatialIndex<>();
+        // saves from before the lists were kept free of null may still hold them
+        entities.removeIf(Objects::isNull);
+        enemies.removeIf(Objects::isNull);
+        inventory.removeIf(Objects::isNull);
+        createViews();
+        moving = new ArrayList<>();
+        entityTypes = new TypeIndex<>();
+        enemyTypes = new TypeIndex<>();
+        itemTypes = new TypeIndex<>();
+        allies = new LinkedHashSet<>();
+        rebuildIndexes();
+        if (historyCapacity <= 0) {
+            // saved before the history capacity was kept
+            historyCapacity = DEFAULT_HISTORY_CAPACITY;
+        }
+        journal = new StateJournal(historyCapacity);
+        if (random == null) {
+            // saved before games were seeded
+            random = new SeededRandom(SeededRandom.newSeed());
+        }
+        if (ids == null) {
+            // saved before ids were counted per dungeon
+            ids = new IdAllocator(nextFreeId());
+        }
+    }
+
+    private int nextFreeId() {
+        int next = 0;
+        List<Entity> all = new ArrayList<>(entities);
+        all.addAll(enemies);
+        all.addAll(inventory);
+        if (player != null) {
+            all.addAll(player.getInventory());
+        }
+        for (Entity entity: all) {
+            if (entity != null) {
+                try {
+                    next = Math.max(next, Integer.parseInt(entity.getId()) + 1);
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return next;
+    }
+
+    /*
+     * The factory and animations hold nothing of the game and are not saved
+     */
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(entities);
+        out.writeObject(enemies);
+        out.writeObject(inventory);
+        out.writeObject(buildables);
+        out.writeDouble(ZombieAttack);
+        out.writeDouble(ZombieHealth);
+        out.writeDouble(SpiderAttack);
+        out.writeDouble(SpiderHealth);
+        out.writeInt(spiderSpawnRate);
+        out.writeInt(zombieSpawnRate);
+        out.writeInt(zombieSpawnCounter);
+        out.writeObject(dungeonSpawnLimits);
+        out.writeObject(spiderSpawner);
+        out.writeObject(readyToBuild);
+        out.writeObject(battles);
+        out.writeObject(subgoalList);
+        out.writeObject(switchList);
+        out.writeInt(enemyGoals);
+        out.writeInt(enemiesKill);
+        out.writeObject(player);
+        out.writeString(goals);
+        out.writeObject(superGoal);
+        out.writeInt(historyCapacity);
+        out.writeObject(random);
+        out.writeObject(ids);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        entities = in.readList(Entity.class);
+        enemies = in.readList(Enemy.class);
+        inventory = in.readList(ItemEntity.class);
+        buildables = in.readList(String.class);
+        ZombieAttack = in.readDouble();
+        ZombieHealth = in.readDouble();
+        SpiderAttack = in.readDouble();
+        SpiderHealth = in.readDouble();
+        spiderSpawnRate = in.readInt();
+        zombieSpawnRate = in.readInt();
+        zombieSpawnCounter = in.readInt();
+        dungeonSpawnLimits = in.readList(Integer.class);
+        spiderSpawner = in.readObject(SpiderSpawner.class);
+        readyToBuild = in.readList(String.class);
+        battles = in.readList(Battle.class);
+        subgoalList = in.readList(GoalsInterface.class);
+        switchList = in.readList(FloorSwitch.class);
+        enemyGoals = in.readInt();
+        enemiesKill = in.readInt();
+        player = in.readObject(Player.class);
+        goals = in.readString();
+        superGoal = in.readObject(GoalsInterface.class);
+        historyCapacity = in.readInt();
+        random = in.readObject(SeededRandom.class);
+        ids = in.readObject(IdAllocator.class);
+    }
+}
@@ -2,20 +2,29 @@ package dungeonmania;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
 
 public class DungeonGenerator {
     
     private boolean[][] mazeArray;
     private int width;
     private int height;
+    private SeededRandom random;
 
     public DungeonGenerator(boolean[][] mazeArray, int width, int height) {
+        this(mazeArray, width, height, new SeededRandom(SeededRandom.newSeed()));
+    }
+
+    /**
+     * @param random source of the maze layout, a seeded one always gives the same maze
+     */
+    public DungeonGenerator(boolean[][] mazeArray, int width, int height, SeededRandom random) {
         this.mazeArray = mazeArray;
         this.width = width;
         this.height = height;
+        this.random = random;
     }
 
     public boolean[][] generateMaze() {
@@ -27,7 +36,6 @@ public class DungeonGenerator {
 
         // add to options all neighbours of 'start' not on boundary that are of distance 2 away and are walls
         List<Position> options = getNeighbours(start, distanceOf2, false);
-        Random random = new Random();  
         while (! options.isEmpty()) {
             Position next = options.remove(random.nextInt(options.size()));
             // let neighbours = each neighbour of distance 2 from next not on boundary that are empty
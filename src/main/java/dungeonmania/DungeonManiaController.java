@@ -3,14 +3,17 @@ package dungeonmania;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
+import com.google.gson.stream.JsonWriter;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import dungeonmania.battles.Battle;
+import dungeonmania.battles.Round;
 import dungeonmania.enemy.Assassin;
 import dungeonmania.enemy.Enemy;
 import dungeonmania.enemy.Mercenary;
@@ -25,26 +28,39 @@ import dungeonmania.items.Bomb;
 import dungeonmania.items.ItemEntity;
 import dungeonmania.items.Potion;
 import dungeonmania.response.models.AnimationQueue;
+import dungeonmania.response.models.BatchDeltaResponse;
+import dungeonmania.response.models.BatchResponse;
 import dungeonmania.response.models.BattleResponse;
+import dungeonmania.response.models.BattleSummaryResponse;
+import dungeonmania.response.models.DungeonDeltaResponse;
 import dungeonmania.response.models.DungeonResponse;
 import dungeonmania.response.models.EntityResponse;
 import dungeonmania.response.models.ItemResponse;
 import dungeonmania.util.Direction;
 import dungeonmania.util.FileLoader;
 import dungeonmania.util.Position;
+import dungeonmania.util.ResourceCatalogue;
+import dungeonmania.util.SeededRandom;
 
 public class DungeonManiaController {
     private String goals = "";
     private Player player;
     private String name;
     private String config;
+    private GameConfig gameConfig;
     private Dungeon dungeon = new Dungeon();
     //private List<Direction> movements = new ArrayList<>();
-    private HashMap<Integer, Direction> movements = new HashMap<>();
+    private HistoryBuffer<Direction> movements = new HistoryBuffer<>(Dungeon.DEFAULT_HISTORY_CAPACITY);
     // to store the original dungeon during time travel
 
     private int tickOccurred = 0;
     private int tickAtTimeTravel = 0;
+    // what clients of this game asking for deltas have been sent
+    private final EntityVersions versions = new EntityVersions();
+    // store used instead of the one in the saves folder, set by tools that must not touch players' saves
+    private SaveStore saveStore;
+    // length of the last full response written for this game, a buffer for the next one starts this big
+    private int responseSizeHint = 0;
 
     public String getSkin() {
         return "default";
@@ -58,65 +74,116 @@ public class DungeonManiaController {
      * /dungeons
      */
     public static List<String> dungeons() {
-        return FileLoader.listFileNamesInResourceDirectory("dungeons");
+        return ResourceCatalogue.getNames("dungeons");
     }
 
     /**
      * /configs
      */
     public static List<String> configs() {
-        return FileLoader.listFileNamesInResourceDirectory("configs");
+        return ResourceCatalogue.getNames("configs");
     }
 
     /**
      * /saves
      */
     public static List<String> saves() {
-        return FileLoader.listFileNamesInResourceDirectory("saves");
+        List<String> saves = new ArrayList<>();
+        SaveStore store = saveStore();
+        if (store != null) {
+            try {
+                saves.addAll(store.getNames());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        // games saved as separate files before the save store
+        saves.addAll(ResourceCatalogue.getNames("saves"));
+        return saves;
+    }
+
+    /**
+     * save and load games with the given store instead of the saves folder
+     * @param saveStore
+     */
+    void useSaveStore(SaveStore saveStore) {
+        this.saveStore = saveStore;
+    }
+
+    private SaveStore currentSaveStore() {
+        return saveStore != null ? saveStore : saveStore();
+    }
+
+    private static SaveStore saveStore() {
+        try {
+            return SaveStore.open(Paths.get(FileLoader.getPathForNewFile("saves", SaveStore.FILE_NAME)));
+        } catch (NullPointerException | IOException e) {
+            // the save folder does not exist yet
+            return null;
+        }
     }
 
     /**
      * /game/new
      */
     public DungeonResponse newGame(String dungeonName, String configName) throws IllegalArgumentException {
-        name = dungeonName;
-        config = configName;
+        return newGame(dungeonName, configName, SeededRandom.newSeed());
+    }
 
+    /**
+     * start a game whose random choices all come from the given seed,
+     * so the same seed and the same actions always play out the same way
+     */
+    public DungeonResponse newGame(String dungeonName, String configName, long seed) throws IllegalArgumentException {
         // Exception when file is not exist
         if (! dungeons().contains(dungeonName) || ! configs().contains(configName)) {
             throw new IllegalArgumentException();
         }
-        
+
         try {
-            // read dungeon file
-            String dungeonfile = FileLoader.loadResourceFile("dungeons/" + dungeonName + ".json");
-            JSONObject json = new JSONObject(dungeonfile);
-            // read config file
-            String configFile = FileLoader.loadResourceFile("configs/" + configName + ".json");
-            JSONObject configJson = new JSONObject(configFile);
-            
-            // supergoal
-            JSONObject supergoal = (JSONObject) json.get("goal-condition");
-            goals = (String) supergoal.get("goal");  
-            dungeon.setGoals(":" + goals);
+            // dungeon and config files are parsed once and shared between games
+            return newGame(DungeonTemplate.load(dungeonName), GameConfig.load(configName), seed);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read " + dungeonName + " or " + configName, e);
+        }
+    }
+
+    /**
+     * start a game from an already parsed dungeon and config,
+     * e.g. one that was generated rather than read from the dungeons folder
+     */
+    public DungeonResponse newGame(DungeonTemplate template, GameConfig gameConfig) {
+        return newGame(template, gameConfig, SeededRandom.newSeed());
+    }
+
+    public DungeonResponse newGame(DungeonTemplate template, GameConfig gameConfig, long seed) {
+        dungeon.setSeed(seed);
+        name = template.getName();
+        config = gameConfig.getName();
+        this.gameConfig = gameConfig;
+        JSONObject json = template.getJson();
 
-            int enemyGoals = configJson.getInt("enemy_goal");
-            dungeon.setEnemyGoal(enemyGoals);
+        // supergoal
+        JSONObject supergoal = template.getGoalCondition();
+        goals = template.getGoal();  
+        dungeon.setGoals(":" + goals);
+
+        int enemyGoals = gameConfig.getEnemyGoal();
+        dungeon.setEnemyGoal(enemyGoals);
+    
+        dungeon.createNewDungeon(json, gameConfig);
         
-            dungeon.createNewDungeon(json, configJson);
-            
-            // add subgoal to the string
-            if (supergoal.has("subgoals")) {
-                if (supergoal.get("subgoals") instanceof JSONArray) {
-                    JSONArray subgoalArray = supergoal.getJSONArray("subgoals");
-                    dungeon.addSubgoals(subgoalArray, json);
-                }
+        // add subgoal to the string
+        if (supergoal.has("subgoals")) {
+            if (supergoal.get("subgoals") instanceof JSONArray) {
+                JSONArray subgoalArray = supergoal.getJSONArray("subgoals");
+                dungeon.addSubgoals(subgoalArray, json);
             }
-        
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+
         subscribeEnemies();
+        movements.close();
+        movements = new HistoryBuffer<>(dungeon.getHistoryCapacity());
         dungeon.AddGameState();
 
         //dungeon.renewHealthBar();
@@ -127,21 +194,21 @@ public class DungeonManiaController {
      * /game/dungeonResponseModel
      */
     public DungeonResponse getDungeonResponseModel() {
+        refresh();
         List<EntityResponse> entitiesList = new ArrayList<>();
         List<ItemResponse> inventoryList = new ArrayList<>();
-        List<BattleResponse> battlesList = new ArrayList<>();
+        List<BattleResponse> battlesList = getBattleResponses();
         List<String> buildables = dungeon.getReadyToBuild();
         List <Entity> entities = dungeon.getEntities();
 
         for (Entity entity: entities) {
-            entitiesList.add(new EntityResponse(entity.getId(), entity.getType(), entity.getPosition(), entity.isInteractable()));
+            entitiesList.add(entity.getEntityResponse());
         }
 
         for (Entity entity: dungeon.getItems()) {
-            entitiesList.add(new EntityResponse(entity.getId(), entity.getType(), entity.getPosition(), entity.isInteractable()));
+            entitiesList.add(entity.getEntityResponse());
         }
 
-        player = dungeon.getPlayer();
         if (entities.contains(player)) {
             List <ItemEntity> player_inventory = player.getInventory();
             for (Entity itemEntity: player_inventory) {
@@ -150,15 +217,66 @@ public class DungeonManiaController {
         }
 
         for (Enemy enemy : dungeon.getEnemies()) {
-            entitiesList.add(new EntityResponse(enemy.getId(), enemy.getType(), enemy.getPosition(), enemy.isInteractable()));
+            entitiesList.add(enemy.getEntityResponse());
         }
 
+        return new DungeonResponse(name, name, entitiesList, inventoryList, battlesList, buildables, dungeon.getGoals());
+    }
+
+    /**
+     * @return the battles of the game as getDungeonResponseModel() has them, without building the rest of the response
+     */
+    public List<BattleResponse> getBattleResponses() {
+        List<BattleResponse> battlesList = new ArrayList<>();
         for (Battle battle: dungeon.getBattles()) {
             battlesList.add(new BattleResponse(battle.getEnemy().getType(), battle.getRoundResponseList(), 
             battle.getInitialPlayerHealth(), battle.getInitialEnemyHealth()));
 
         }
+        return battlesList;
+    }
 
+    /**
+     * /game/dungeonResponseModel, written straight from the game as the JSON
+     * Gson would make of getDungeonResponseModel(), without building the response
+     * @param out
+     * @throws IOException
+     */
+    public void writeDungeonResponseModel(JsonWriter out) throws IOException {
+        refresh();
+        DungeonResponseWriter.write(out, name, dungeon);
+    }
+
+    public int getResponseSizeHint() {
+        return responseSizeHint;
+    }
+
+    public void setResponseSizeHint(int responseSizeHint) {
+        this.responseSizeHint = responseSizeHint;
+    }
+
+    /**
+     * /game/dungeonResponseModel, only what changed since a version the client already has
+     * @param since the version of the last delta the client applied, negative for a full resync
+     * @return the changes, or everything if the client is too far behind
+     */
+    public DungeonDeltaResponse getDungeonDelta(long since) {
+        return getDungeonDelta(getDungeonResponseModel(), since);
+    }
+
+    /**
+     * describe a response built by this game as a delta
+     * @param response the latest response of this game
+     * @param since the version of the last delta the client applied, negative for a full resync
+     * @return the changes, or everything if the client is too far behind
+     */
+    public DungeonDeltaResponse getDungeonDelta(DungeonResponse response, long since) {
+        return versions.delta(response, since);
+    }
+
+    // bring the player and goals up to date, done after every action whether or not a response is built
+    private void refresh() {
+        player = dungeon.getPlayer();
         if (dungeon.printGoals(dungeon.getSuperGoal()) != null) {
             if (dungeon.getSuperGoal().isFinished(dungeon)) {
                 dungeon.setGoals("");
@@ -166,8 +284,50 @@ public class DungeonManiaController {
                 dungeon.setGoals(dungeon.printGoals(dungeon.getSuperGoal()));
             }
         }
+    }
 
-        return new DungeonResponse(name, name, entitiesList, inventoryList, battlesList, buildables, dungeon.getGoals());
+    /**
+     * apply an action without building a response, so several actions in a
+     * row only pay for the response after the last of them
+     * @param action
+     * @throws IllegalArgumentException
+     * @throws InvalidActionException
+     */
+    public void apply(Action action) throws IllegalArgumentException, InvalidActionException {
+        switch (action.getKind()) {
+            case MOVE:
+                move(action.getDirection());
+                break;
+            case USE:
+                useItem(findItemId(action.getTarget()));
+                break;
+            case BUILD:
+                buildItem(action.getTarget());
+                break;
+            default:
+                interactWith(action.getTarget());
+                break;
+        }
+        refresh();
+    }
+
+    // the id of an inventory item with the given id, or else of the first one of the given type
+    private String findItemId(String item) {
+        Player player = dungeon.getPlayer();
+        if (player == null) {
+            return item;
+        }
+        for (ItemEntity entity: player.getInventory()) {
+            if (entity.getId().equals(item)) {
+                return item;
+            }
+        }
+        for (ItemEntity entity: player.getInventory()) {
+            if (entity.getType().equals(item)) {
+                return entity.getId();
+            }
+        }
+        return item;
     }
 
 
@@ -175,6 +335,11 @@ public class DungeonManiaController {
      * /game/tick/item
      */
     public DungeonResponse tick(String itemUsedId) throws IllegalArgumentException, InvalidActionException {
+        useItem(itemUsedId);
+        return getDungeonResponseModel();
+    }
+
+    private void useItem(String itemUsedId) throws IllegalArgumentException, InvalidActionException {
         checkExistPlayer();
 
         // tick active potions before a new one is consumed
@@ -191,7 +356,7 @@ public class DungeonManiaController {
                         player.tickPotions();
                         tickOccurred++;
                         dungeon.AddGameState();
-                        return getDungeonResponseModel();
+                        return;
                     }
                 }
                 if (item instanceof Bomb) {
@@ -200,7 +365,7 @@ public class DungeonManiaController {
                     player.placeBomb((Bomb)item, dungeon);
                     tickOccurred++;
                     dungeon.AddGameState();
-                    return getDungeonResponseModel();
+                    return;
                 } else {
                     throw new IllegalArgumentException("Not in player's inventory");
                 }
@@ -216,11 +381,16 @@ public class DungeonManiaController {
      * /game/tick/movement
      */
     public DungeonResponse tick(Direction movementDirection) {
+        move(movementDirection);
+        return getDungeonResponseModel();
+    }
+
+    private void move(Direction movementDirection) {
         checkExistPlayer();
         tickOccurred++;
         // Move player
         player = dungeon.getPlayer();
-        if (player == null) {return getDungeonResponseModel();}
+        if (player == null) {return;}
         player.move(dungeon, movementDirection);
 
         Player older = dungeon.getOlderPlayer();
@@ -228,7 +398,7 @@ public class DungeonManiaController {
             if (tickOccurred > tickAtTimeTravel) {
                 dungeon.removeEntity(older);
             }
-            if (movements.containsKey(tickOccurred)) {
+            if (movements.contains(tickOccurred)) {
                 older.move(dungeon, movements.get(tickOccurred));
             }
         }
@@ -247,7 +417,7 @@ public class DungeonManiaController {
             movements.put(tickOccurred, movementDirection);
         }
         if (! dungeon.checkPlayer()) {
-            return getDungeonResponseModel();
+            return;
         } 
         
         // Move all enemies
@@ -263,19 +433,97 @@ public class DungeonManiaController {
 
         dungeon.AddGameState();
         movements.put(tickOccurred, movementDirection);
+    }
 
-        return getDungeonResponseModel();
+    /**
+     * /game/tick/batch
+     * @param actions
+     * @return the response after the last action
+     * @throws IllegalArgumentException
+     * @throws InvalidActionException
+     */
+    public DungeonResponse tickBatch(List<Action> actions) throws IllegalArgumentException, InvalidActionException {
+        return tickBatch(actions, false).getDungeon();
+    }
+
+    /**
+     * apply actions one after another, building only the response after the
+     * last of them. Applying stops early once the player is gone. If an action
+     * fails, the ones before it stay applied, as if they had been sent one by one.
+     * @param actions
+     * @param battleSummaries whether to summarise the battles fought during each action
+     * @return the response after the last action applied
+     * @throws IllegalArgumentException
+     * @throws InvalidActionException
+     */
+    public BatchResponse tickBatch(List<Action> actions, boolean battleSummaries)
+            throws IllegalArgumentException, InvalidActionException {
+        List<BattleSummaryResponse> summaries = new ArrayList<>();
+        int applied = applyBatch(actions, battleSummaries, summaries);
+        return new BatchResponse(getDungeonResponseModel(), applied, summaries);
+    }
+
+    /**
+     * tickBatch, answered with the changes since a version the client has
+     * @param actions
+     * @param battleSummaries whether to summarise the battles fought during each action
+     * @param since the version of the last delta the client applied, negative for a full resync
+     * @return the changes after the last action applied
+     * @throws IllegalArgumentException
+     * @throws InvalidActionException
+     */
+    public BatchDeltaResponse tickBatch(List<Action> actions, boolean battleSummaries, long since)
+            throws IllegalArgumentException, InvalidActionException {
+        List<BattleSummaryResponse> summaries = new ArrayList<>();
+        int applied = applyBatch(actions, battleSummaries, summaries);
+        return new BatchDeltaResponse(getDungeonDelta(since), applied, summaries);
+    }
+
+    // apply the actions of a batch, returns how many were applied
+    private int applyBatch(List<Action> actions, boolean battleSummaries, List<BattleSummaryResponse> summaries)
+            throws IllegalArgumentException, InvalidActionException {
+        int applied = 0;
+        for (Action action: actions) {
+            if (!dungeon.checkPlayer()) {
+                break;
+            }
+            int battlesBefore = dungeon.getBattles().size();
+            apply(action);
+            if (battleSummaries) {
+                // rewinding restores an older, shorter list of battles
+                List<Battle> battles = dungeon.getBattles();
+                for (int i = Math.min(battlesBefore, battles.size()); i < battles.size(); i++) {
+                    summaries.add(summarise(applied, battles.get(i)));
+                }
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private static BattleSummaryResponse summarise(int action, Battle battle) {
+        double playerHealth = battle.getInitialPlayerHealth();
+        double enemyHealth = battle.getInitialEnemyHealth();
+        for (Round round: battle.getRoundsList()) {
+            playerHealth += round.getDeltaPlayerHealth();
+            enemyHealth += round.getDeltaEnemyHealth();
+        }
+        return new BattleSummaryResponse(action, battle.getEnemy().getType(), battle.getRoundsList().size(),
+                playerHealth, enemyHealth);
     }
 
     /**
      * /game/build
      */
     public DungeonResponse build(String buildable) throws IllegalArgumentException, InvalidActionException {
+        buildItem(buildable);
+        return getDungeonResponseModel();
+    }
 
+    private void buildItem(String buildable) throws IllegalArgumentException, InvalidActionException {
         player = dungeon.getPlayer();
         try {
-            String configFile = FileLoader.loadResourceFile("configs/" + config + ".json");
-            JSONObject configJson = new JSONObject(configFile);
+            GameConfig gameConfig = this.gameConfig != null ? this.gameConfig : GameConfig.load(config);
             
             if (! buildable.equals("bow") && ! buildable.equals("shield") && ! buildable.equals("sceptre") && ! buildable.equals("midnight_armour")) {
                 throw new IllegalArgumentException();
@@ -324,19 +572,22 @@ public class DungeonManiaController {
                     throw new InvalidActionException("Not enough item"); 
                 }
             }
-            dungeon.createBuildableItem(buildable, configJson, player.getPosition());
+            dungeon.createBuildableItem(buildable, gameConfig, player.getPosition());
 
         } catch (IOException e) {
             e.printStackTrace();
         }
-
-        return getDungeonResponseModel();
     }
 
     /**
      * /game/interact
      */
     public DungeonResponse interact(String entityId) throws IllegalArgumentException, InvalidActionException {
+        interactWith(entityId);
+        return getDungeonResponseModel();
+    }
+
+    private void interactWith(String entityId) throws IllegalArgumentException, InvalidActionException {
         for (Enemy e: dungeon.getEnemies()) {
             // If mercenary
             if (e.getId().equals(entityId)) {
@@ -348,7 +599,7 @@ public class DungeonManiaController {
                     Assassin a = (Assassin) e;
                     a.bribe(player);
                 } 
-                return getDungeonResponseModel();
+                return;
             }
         }
 
@@ -357,7 +608,7 @@ public class DungeonManiaController {
             if (e.getId().equals(entityId)) {
                 ZombieToastSpawner s = (ZombieToastSpawner) e;
                 s.destroy(dungeon);
-                return getDungeonResponseModel();
+                return;
             }
         }
 
@@ -370,6 +621,15 @@ public class DungeonManiaController {
     public DungeonResponse saveGame(String name) throws IllegalArgumentException {
         
         long timeStamp = System.currentTimeMillis();
+
+        if (saveStore != null) {
+            try {
+                saveStore.append(name + "-" + timeStamp, SerializationUtils.serialization(dungeon));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return getDungeonResponseModel();
+        }
         
         // check if the save folder exists
         ClassLoader classLoader = getClass().getClassLoader();
@@ -384,20 +644,14 @@ public class DungeonManiaController {
             saveDir.mkdir();
         }
 
-        String filename = name + "-" + timeStamp + ".json";
-        String filePath = "";
-        try {
-            filePath = FileLoader.getPathForNewFile("saves", filename);
-        } catch (NullPointerException | IOException e1) {
-            e1.printStackTrace();
-        }
-
         try {
             // saving object by using serialization
-            SerializationUtils.serialization(dungeon, filePath);
-        } catch (IOException e) {
+            saveStore().append(name + "-" + timeStamp, SerializationUtils.serialization(dungeon));
+        } catch (NullPointerException | IOException e) {
             e.printStackTrace();
         }
+        // the saves folder may have just been created
+        ResourceCatalogue.invalidate("saves");
         
         return getDungeonResponseModel();
     }
@@ -406,31 +660,53 @@ public class DungeonManiaController {
      * /game/load
      */
     public DungeonResponse loadGame(String name) throws IllegalArgumentException {
+        SaveStore store = currentSaveStore();
+        String save = null;
+        try {
+            save = store == null ? null : store.find(name);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
 
-        int found = 0;
-        // check if the file starts with the name or equals to the name
-        for (String file: allGames()) {
-            if (file.startsWith(name) || file.equals(name)) {
-                name = file;
-                found = 1;
-            }
-        } 
+        String filePath = null;
+        if (save == null) {
+            int found = 0;
+            // check if the file starts with the name or equals to the name
+            for (String file: ResourceCatalogue.getNames("saves")) {
+                if (file.startsWith(name) || file.equals(name)) {
+                    name = file;
+                    found = 1;
+                }
+            } 
 
-        if (found == 0) {
-            throw new IllegalArgumentException();
-        }
+            if (found == 0) {
+                throw new IllegalArgumentException();
+            }
 
-        // get the path of the game 
-        String filePath = "";
-        try {
-            filePath = FileLoader.getPathForNewFile("saves", name);
-        } catch (NullPointerException | IOException e1) {
-            e1.printStackTrace();
+            // get the path of the game 
+            try {
+                filePath = FileLoader.getPathForNewFile("saves", name) + ".json";
+            } catch (NullPointerException | IOException e1) {
+                e1.printStackTrace();
+            }
         }
 
         try {
             // deserialize the dungeon object
-            dungeon = (Dungeon) SerializationUtils.deserialization(filePath + ".json");
+            Dungeon loaded;
+            if (save != null) {
+                loaded = (Dungeon) SerializationUtils.deserialization(store.read(save));
+            } else {
+                loaded = (Dungeon) SerializationUtils.deserialization(filePath);
+            }
+            close();
+            dungeon = loaded;
+            // the rewind history starts again from the loaded game
+            dungeon.restoreTransientState();
+            tickOccurred = 0;
+            tickAtTimeTravel = 0;
+            movements = new HistoryBuffer<>(dungeon.getHistoryCapacity());
+            dungeon.AddGameState();
         } catch (ClassNotFoundException | IOException e1) {
             e1.printStackTrace();
         }
@@ -439,6 +715,15 @@ public class DungeonManiaController {
         return getDungeonResponseModel();
     }
 
+    /**
+     * delete the rewind history of the current game from disk, once the game is
+     * replaced or the controller is dropped
+     */
+    public void close() {
+        dungeon.closeHistory();
+        movements.close();
+    }
+
     /**
      * /games/all
      */
@@ -469,6 +754,13 @@ public class DungeonManiaController {
      * /games/generate
      */
     public DungeonResponse generateDungeon(int xStart, int yStart, int xEnd, int yEnd, String configName) throws IllegalArgumentException{
+        return generateDungeon(xStart, yStart, xEnd, yEnd, configName, SeededRandom.newSeed());
+    }
+
+    /**
+     * generate a maze from a seed, the same seed always gives the same maze
+     */
+    public DungeonResponse generateDungeon(int xStart, int yStart, int xEnd, int yEnd, String configName, long seed) throws IllegalArgumentException{
 
         if (! configs().contains(configName)) {
             throw new IllegalArgumentException();
@@ -478,10 +770,9 @@ public class DungeonManiaController {
         int playerAttack = -1;
 
         try {
-            String configFile = FileLoader.loadResourceFile("configs/" + configName + ".json");
-            JSONObject configJson = new JSONObject(configFile);
-            playerHealth = configJson.getInt("player_health");
-            playerAttack = configJson.getInt("player_attack");
+            GameConfig gameConfig = GameConfig.load(configName);
+            playerHealth = gameConfig.getPlayerHealth();
+            playerAttack = gameConfig.getPlayerAttack();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -492,7 +783,9 @@ public class DungeonManiaController {
         boolean[][] mazeArray = new boolean[width + 1][height + 1];
 
         // generate map
-        DungeonGenerator generator = new DungeonGenerator(mazeArray, width, height);
+        dungeon.setSeed(seed);
+        // the maze has its own stream so the game's numbers do not depend on the maze size
+        DungeonGenerator generator = new DungeonGenerator(mazeArray, width, height, dungeon.getRandom().split());
         mazeArray = generator.generateMaze();
 
         // add entity to dungeon
@@ -549,4 +842,11 @@ public class DungeonManiaController {
             dungeon.setGoals("");
         }
     }
+
+    /**
+     * @return the live game, for tools such as the batch runner that look at it between actions
+     */
+    public Dungeon getDungeon() {
+        return dungeon;
+    }
 }
@@ -0,0 +1,117 @@
+package dungeonmania;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.gson.stream.JsonWriter;
+
+import dungeonmania.battles.Battle;
+import dungeonmania.battles.Round;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.items.ItemEntity;
+import dungeonmania.util.Position;
+
+/*
+ * Writes a game as the JSON of its DungeonResponse, straight from the game
+ * state rather than through response objects. The fields come out in the same
+ * order and shape Gson gives a DungeonResponse, so clients cannot tell the two apart.
+ */
+final class DungeonResponseWriter {
+    private DungeonResponseWriter() {}
+
+    static void write(JsonWriter out, String name, Dungeon dungeon) throws IOException {
+        List<Entity> entities = dungeon.getEntities();
+        List<String> buildables = dungeon.getReadyToBuild();
+        out.beginObject();
+        out.name("dungeonId").value(name);
+        out.name("dungeonName").value(name);
+
+        out.name("entities").beginArray();
+        for (Entity entity: entities) {
+            writeEntity(out, entity);
+        }
+        for (Entity entity: dungeon.getItems()) {
+            writeEntity(out, entity);
+        }
+        for (Entity entity: dungeon.getEnemies()) {
+            writeEntity(out, entity);
+        }
+        out.endArray();
+
+        out.name("inventory").beginArray();
+        Player player = dungeon.getPlayer();
+        if (entities.contains(player)) {
+            for (ItemEntity item: player.getInventory()) {
+                writeItem(out, item);
+            }
+        }
+        out.endArray();
+
+        out.name("battles").beginArray();
+        for (Battle battle: dungeon.getBattles()) {
+            writeBattle(out, battle);
+        }
+        out.endArray();
+
+        out.name("buildables");
+        if (buildables == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (String buildable: buildables) {
+                out.value(buildable);
+            }
+            out.endArray();
+        }
+        out.name("goals").value(dungeon.getGoals());
+        out.name("animations").beginArray().endArray();
+        out.endObject();
+    }
+
+    private static void writeEntity(JsonWriter out, Entity entity) throws IOException {
+        Position position = entity.getPosition();
+        out.beginObject();
+        out.name("id").value(entity.getId());
+        out.name("type").value(entity.getType());
+        out.name("position").beginObject()
+                .name("x").value(position.getX())
+                .name("y").value(position.getY())
+                .name("layer").value(position.getLayer())
+                .endObject();
+        out.name("isInteractable").value(entity.isInteractable());
+        out.endObject();
+    }
+
+    private static void writeItem(JsonWriter out, ItemEntity item) throws IOException {
+        out.beginObject();
+        out.name("id").value(item.getId());
+        out.name("type").value(item.getType());
+        out.endObject();
+    }
+
+    private static void writeBattle(JsonWriter out, Battle battle) throws IOException {
+        out.beginObject();
+        out.name("enemy").value(battle.getEnemy().getType());
+        out.name("initialPlayerHealth").value(battle.getInitialPlayerHealth());
+        out.name("initialEnemyHealth").value(battle.getInitialEnemyHealth());
+        out.name("rounds").beginArray();
+        for (Round round: battle.getRoundsList()) {
+            out.beginObject();
+            out.name("deltaPlayerHealth").value(round.getDeltaPlayerHealth());
+            out.name("deltaEnemyHealth").value(round.getDeltaEnemyHealth());
+            // the items used come before the weapons, as in Round.getItemResponseWeaponsUsed
+            out.name("weaponryUsed").beginArray();
+            for (ItemEntity item: round.getItemsUsed()) {
+                writeItem(out, item);
+            }
+            for (ItemEntity item: round.getWeaponsUsed()) {
+                writeItem(out, item);
+            }
+            out.endArray();
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+}
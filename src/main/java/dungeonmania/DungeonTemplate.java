@@ -0,0 +1,75 @@
+package dungeonmania;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import dungeonmania.util.FileLoader;
+import dungeonmania.util.LruCache;
+
+/*
+ * A dungeon file parsed once and shared by every game started from it.
+ * Games only read the template when creating their entities and goals,
+ * they never modify it.
+ */
+public final class DungeonTemplate {
+    private static final int CACHE_SIZE = 32;
+    private static final LruCache<String, DungeonTemplate> CACHE = new LruCache<>(CACHE_SIZE);
+
+    private final String name;
+    private final JSONObject json;
+    private final JSONObject goalCondition;
+
+    private DungeonTemplate(String name, JSONObject json) {
+        this.name = name;
+        this.json = json;
+        this.goalCondition = json.getJSONObject("goal-condition");
+    }
+
+    /**
+     * get a dungeon by name, reading it from the dungeons folder the first time
+     * @param name dungeon file name without extension
+     * @return the template
+     * @throws IOException if the dungeon cannot be read
+     */
+    public static DungeonTemplate load(String name) throws IOException {
+        DungeonTemplate template = CACHE.get(name);
+        if (template == null) {
+            template = parse(name, new JSONObject(FileLoader.loadResourceFile("dungeons/" + name + ".json")));
+            CACHE.put(name, template);
+        }
+        return template;
+    }
+
+    /**
+     * wrap a dungeon that did not come from the dungeons folder, the template is not cached
+     * @param name
+     * @param json dungeon with "entities" and "goal-condition"
+     * @return the template
+     * @throws IllegalArgumentException if the dungeon has no goal condition
+     */
+    public static DungeonTemplate parse(String name, JSONObject json) {
+        try {
+            return new DungeonTemplate(name, json);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid dungeon " + name + ": " + e.getMessage());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGoal() {
+        return goalCondition.getString("goal");
+    }
+
+    JSONObject getJson() {
+        return json;
+    }
+
+    JSONObject getGoalCondition() {
+        return goalCondition;
+    }
+}
@@ -49,13 +49,14 @@ import dungeonmania.weapon.Sceptre;
 import java.io.Serializable;
 
 public class EntityFactory implements Serializable {
+    private static final long serialVersionUID = 6715586480997824116L;
     
-    public Entity createEntity(JSONObject entity, JSONObject configJson, String type, Position position) {
+    public Entity createEntity(JSONObject entity, GameConfig config, String type, Position position) {
 
         switch (type) {
             case "player":
-                int playerHealth = configJson.getInt("player_health");
-                int attackDamage = configJson.getInt("player_attack");
+                int playerHealth = config.getPlayerHealth();
+                int attackDamage = config.getPlayerAttack();
                 return new Player(position, attackDamage, playerHealth, type);
             case "wall":
                 return new Wall(position, type);
@@ -84,76 +85,76 @@ public class EntityFactory implements Serializable {
         return null;
     }
 
-    public Enemy createEnemy(JSONObject configJson, String type, Position position) {
+    public Enemy createEnemy(GameConfig config, String type, Position position) {
     
         int initialEnemyHealth;
         int attackDamage;
         switch (type) {
             case "spider":
-                initialEnemyHealth = configJson.getInt("spider_health");
-                attackDamage = configJson.getInt("spider_attack");
+                initialEnemyHealth = config.getSpiderHealth();
+                attackDamage = config.getSpiderAttack();
                 return new Spider(position, initialEnemyHealth, attackDamage, type);
             case "zombie_toast":
-                initialEnemyHealth = configJson.getInt("zombie_health");
-                attackDamage = configJson.getInt("zombie_attack");
+                initialEnemyHealth = config.getZombieHealth();
+                attackDamage = config.getZombieAttack();
                 return new ZombieToast(position, initialEnemyHealth, attackDamage, type);
             case "mercenary":
-                initialEnemyHealth = configJson.getInt("mercenary_health");
-                attackDamage = configJson.getInt("mercenary_attack");
-                int bribeAmount = configJson.getInt("bribe_amount");
-                int bribeRadius = configJson.getInt("bribe_radius");
-                int allyAttack = configJson.getInt("ally_attack");
-                int allyDefence = configJson.getInt("ally_defence");
+                initialEnemyHealth = config.getMercenaryHealth();
+                attackDamage = config.getMercenaryAttack();
+                int bribeAmount = config.getBribeAmount();
+                int bribeRadius = config.getBribeRadius();
+                int allyAttack = config.getAllyAttack();
+                int allyDefence = config.getAllyDefence();
                 return new Mercenary(position, initialEnemyHealth, attackDamage, bribeAmount, bribeRadius, allyAttack, allyDefence, type);
             case "hydra":
-                double hydraAttackDamage = configJson.getDouble("hydra_attack");
-                double hydraHealth = configJson.getDouble("hydra_health");
-                double hydraHealthIncreaseRate = configJson.getDouble("hydra_health_increase_rate");
-                double hydraHealthIncreaseAmount = configJson.getDouble("hydra_health_increase_amount");
+                double hydraAttackDamage = config.getHydraAttack();
+                double hydraHealth = config.getHydraHealth();
+                double hydraHealthIncreaseRate = config.getHydraHealthIncreaseRate();
+                double hydraHealthIncreaseAmount = config.getHydraHealthIncreaseAmount();
                 return new Hydra(position, hydraHealth, hydraAttackDamage, hydraHealthIncreaseRate, hydraHealthIncreaseAmount, type);
             case "assassin":
-                double assassinAttack = configJson.getDouble("assassin_attack");
-                int assassinBribeAmount = configJson.getInt("assassin_bribe_amount");
-                int bribeRadiusA = configJson.getInt("bribe_radius");
-                double assassinBribeFailRate = configJson.getDouble("assassin_bribe_fail_rate");
-                double assassinHealth = configJson.getDouble("assassin_health");
-                int assassinRadius = configJson.getInt("assassin_recon_radius");
-                int allyAttackA = configJson.getInt("ally_attack");
-                int allyDefenceA = configJson.getInt("ally_defence");
+                double assassinAttack = config.getAssassinAttack();
+                int assassinBribeAmount = config.getAssassinBribeAmount();
+                int bribeRadiusA = config.getBribeRadius();
+                double assassinBribeFailRate = config.getAssassinBribeFailRate();
+                double assassinHealth = config.getAssassinHealth();
+                int assassinRadius = config.getAssassinReconRadius();
+                int allyAttackA = config.getAllyAttack();
+                int allyDefenceA = config.getAllyDefence();
                return new Assassin(position, assassinHealth, assassinAttack, assassinBribeAmount, bribeRadiusA, assassinBribeFailRate, assassinRadius, allyAttackA, allyDefenceA, type);
         }
         return null;
     }
 
-    public ItemEntity createItems(JSONObject entity, JSONObject configJson, String type, Position position) {
+    public ItemEntity createItems(JSONObject entity, GameConfig config, String type, Position position) {
         
         int durability;
         switch (type) {
             case "treasure":
-                int treasureGoal = configJson.getInt("treasure_goal");
+                int treasureGoal = config.getTreasureGoal();
                 return new Treasure(position, type, treasureGoal);
             case "sun_stone":
-                int treasureSunStoneGoal = configJson.getInt("treasure_goal");
+                int treasureSunStoneGoal = config.getTreasureGoal();
                 return new SunStone(position, type, treasureSunStoneGoal);
             case "key":
                 int id = entity.getInt("key");
                 return new Key(position, type, id);
             case "invincibility_potion":
-                durability = configJson.getInt("invincibility_potion_duration");
+                durability = config.getInvincibilityPotionDuration();
                 return new InvinciblePotion(position, type, durability);
             case "invisibility_potion":
-                durability = configJson.getInt("invisibility_potion_duration");
+                durability = config.getInvisibilityPotionDuration();
                 return new InvisiblePotion(position, type, durability);
             case "wood":
                 return new Wood(position, type);
             case "arrow":
                 return new Arrow(position, type);
             case "bomb":
-                int raidus = configJson.getInt("bomb_radius");
+                int raidus = config.getBombRadius();
                 return new Bomb(position, type, raidus);
             case "sword":
-                durability = configJson.getInt("sword_durability");
-                int attackDamage = configJson.getInt("sword_attack");
+                durability = config.getSwordDurability();
+                int attackDamage = config.getSwordAttack();
                 return new Sword(position, attackDamage, durability, type);
             case "time_turner":
                 return new TimeTurner(position, type);
@@ -192,23 +193,23 @@ public class EntityFactory implements Serializable {
         return null;
     }
     
-    public ItemEntity createBuildableEntity(String type, JSONObject configJson, Position position) {
+    public ItemEntity createBuildableEntity(String type, GameConfig config, Position position) {
 
         switch (type) {
             case "bow":
-                int bow_durability = configJson.getInt("bow_durability");
+                int bow_durability = config.getBowDurability();
                 return new Bow(position, 2, bow_durability, type);
             case "shield":
-                int shield_durability = configJson.getInt("shield_durability");
-                int shield_defence = configJson.getInt("shield_defence");
+                int shield_durability = config.getShieldDurability();
+                int shield_defence = config.getShieldDefence();
                 return new Shield(position, shield_defence, shield_durability, type);
             case "midnight_armour":
-                int armour_attack = configJson.getInt("midnight_armour_attack");
-                int armour_defence = configJson.getInt("midnight_armour_defence");
+                int armour_attack = config.getMidnightArmourAttack();
+                int armour_defence = config.getMidnightArmourDefence();
                 int armour_durability = Integer.MAX_VALUE; // unlimited durability
                 return new MidnightArmour(position, armour_attack, armour_defence, armour_durability, type);
             case "sceptre":
-                int sceptre_duration = configJson.getInt("mind_control_duration");
+                int sceptre_duration = config.getMindControlDuration();
                 int sceptre_attack = 0;
                 int sceptre_durability = Integer.MAX_VALUE; // unlimited durability
                 return new Sceptre(position, sceptre_attack, sceptre_duration, sceptre_durability, type);
@@ -0,0 +1,116 @@
+package dungeonmania;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dungeonmania.response.models.DungeonDeltaResponse;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.response.models.EntityResponse;
+
+/*
+ * The version at which every entity of a game was added or last changed, so a
+ * client that already has the game at some version only needs what changed
+ * since. Every response passed in gets a new version. Removed entities are
+ * remembered for a while; a client further behind than that, or one with no
+ * version at all, gets a full resync instead.
+ */
+class EntityVersions {
+    static final int MAX_REMOVED = 4096;
+
+    private final Map<String, Tracked> entities = new HashMap<>();
+    // version each entity was removed at, oldest first
+    private final LinkedHashMap<String, Long> removed = new LinkedHashMap<>();
+    private long version = 0;
+    // oldest base version a delta can still be worked out from
+    private long floor = 0;
+    private int battleCount = 0;
+    private long battlesChanged = 0;
+
+    /**
+     * record a response as the latest state and describe it relative to a base version
+     * @param response
+     * @param since version the client has, negative if it has none
+     * @return the changes since that version, or everything if they cannot be worked out
+     */
+    DungeonDeltaResponse delta(DungeonResponse response, long since) {
+        update(response);
+        boolean full = since < floor || since > version;
+        List<EntityResponse> added = new ArrayList<>();
+        List<EntityResponse> changed = new ArrayList<>();
+        for (Tracked tracked: entities.values()) {
+            if (full || tracked.added > since) {
+                added.add(tracked.response);
+            } else if (tracked.changed > since) {
+                changed.add(tracked.response);
+            }
+        }
+        List<String> gone = new ArrayList<>();
+        if (!full) {
+            for (Map.Entry<String, Long> entry: removed.entrySet()) {
+                if (entry.getValue() > since) {
+                    gone.add(entry.getKey());
+                }
+            }
+        }
+        return new DungeonDeltaResponse(response.getDungeonId(), response.getDungeonName(), full ? -1 : since,
+                version, full, added, changed, gone, response.getInventory(),
+                full || battlesChanged > since ? response.getBattles() : null,
+                response.getBuildables(), response.getGoals());
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    private void update(DungeonResponse response) {
+        version++;
+        Set<String> present = new HashSet<>();
+        for (EntityResponse entity: response.getEntities()) {
+            present.add(entity.getId());
+            Tracked tracked = entities.get(entity.getId());
+            if (tracked == null) {
+                entities.put(entity.getId(), new Tracked(entity, version));
+                removed.remove(entity.getId());
+            } else if (!tracked.response.equals(entity)) {
+                tracked.response = entity;
+                tracked.changed = version;
+            }
+        }
+        Iterator<Map.Entry<String, Tracked>> iterator = entities.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String id = iterator.next().getKey();
+            if (!present.contains(id)) {
+                iterator.remove();
+                removed.put(id, version);
+            }
+        }
+        // forgetting a removal means clients from before it need a full resync
+        Iterator<Long> oldest = removed.values().iterator();
+        while (removed.size() > MAX_REMOVED) {
+            floor = Math.max(floor, oldest.next());
+            oldest.remove();
+        }
+        if (response.getBattles().size() != battleCount) {
+            battleCount = response.getBattles().size();
+            battlesChanged = version;
+        }
+    }
+
+    private static class Tracked {
+        private EntityResponse response;
+        private final long added;
+        private long changed;
+
+        Tracked(EntityResponse response, long version) {
+            this.response = response;
+            this.added = version;
+            this.changed = version;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package dungeonmania;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import dungeonmania.util.FileLoader;
+import dungeonmania.util.LruCache;
+
+/*
+ * A config file parsed once into plain values and shared by every game that
+ * uses it. Configs are cached by name, so starting a game, building an item or
+ * spawning an enemy does not read, parse or look up the file again.
+ */
+public final class GameConfig {
+    private static final int CACHE_SIZE = 32;
+    private static final LruCache<String, GameConfig> CACHE = new LruCache<>(CACHE_SIZE);
+    private static final int MISSING_INT = Integer.MIN_VALUE;
+
+    private final String name;
+    // values every config has
+    private final int enemyGoal;
+    private final int playerHealth;
+    private final int playerAttack;
+    private final int zombieAttack;
+    private final int zombieHealth;
+    private final int spiderAttack;
+    private final int spiderHealth;
+    private final int spiderSpawnRate;
+    private final int zombieSpawnRate;
+    private final int mercenaryAttack;
+    private final int mercenaryHealth;
+    private final int bribeAmount;
+    private final int bribeRadius;
+    private final int allyAttack;
+    private final int allyDefence;
+    private final int treasureGoal;
+    private final int invincibilityPotionDuration;
+    private final int invisibilityPotionDuration;
+    private final int bombRadius;
+    private final int swordAttack;
+    private final int swordDurability;
+    private final int bowDurability;
+    private final int shieldDefence;
+    private final int shieldDurability;
+    private final int historyCapacity;
+    // values only needed by dungeons with the newer entities, missing ones are
+    // MISSING_INT or NaN and only rejected when an entity needs them
+    private final int midnightArmourAttack;
+    private final int midnightArmourDefence;
+    private final int mindControlDuration;
+    private final int assassinBribeAmount;
+    private final int assassinReconRadius;
+    private final double hydraAttack;
+    private final double hydraHealth;
+    private final double hydraHealthIncreaseRate;
+    private final double hydraHealthIncreaseAmount;
+    private final double assassinAttack;
+    private final double assassinHealth;
+    private final double assassinBribeFailRate;
+
+    private GameConfig(String name, JSONObject json) {
+        this.name = name;
+        this.enemyGoal = json.getInt("enemy_goal");
+        this.playerHealth = json.getInt("player_health");
+        this.playerAttack = json.getInt("player_attack");
+        this.zombieAttack = json.getInt("zombie_attack");
+        this.zombieHealth = json.getInt("zombie_health");
+        this.spiderAttack = json.getInt("spider_attack");
+        this.spiderHealth = json.getInt("spider_health");
+        this.spiderSpawnRate = json.getInt("spider_spawn_rate");
+        this.zombieSpawnRate = json.getInt("zombie_spawn_rate");
+        this.mercenaryAttack = json.getInt("mercenary_attack");
+        this.mercenaryHealth = json.getInt("mercenary_health");
+        this.bribeAmount = json.getInt("bribe_amount");
+        this.bribeRadius = json.getInt("bribe_radius");
+        this.allyAttack = json.getInt("ally_attack");
+        this.allyDefence = json.getInt("ally_defence");
+        this.treasureGoal = json.getInt("treasure_goal");
+        this.invincibilityPotionDuration = json.getInt("invincibility_potion_duration");
+        this.invisibilityPotionDuration = json.getInt("invisibility_potion_duration");
+        this.bombRadius = json.getInt("bomb_radius");
+        this.swordAttack = json.getInt("sword_attack");
+        this.swordDurability = json.getInt("sword_durability");
+        this.bowDurability = json.getInt("bow_durability");
+        this.shieldDefence = json.getInt("shield_defence");
+        this.shieldDurability = json.getInt("shield_durability");
+        this.historyCapacity = json.optInt("history_capacity", Dungeon.DEFAULT_HISTORY_CAPACITY);
+        this.midnightArmourAttack = json.optInt("midnight_armour_attack", MISSING_INT);
+        this.midnightArmourDefence = json.optInt("midnight_armour_defence", MISSING_INT);
+        this.mindControlDuration = json.optInt("mind_control_duration", MISSING_INT);
+        this.assassinBribeAmount = json.optInt("assassin_bribe_amount", MISSING_INT);
+        this.assassinReconRadius = json.optInt("assassin_recon_radius", MISSING_INT);
+        this.hydraAttack = json.optDouble("hydra_attack");
+        this.hydraHealth = json.optDouble("hydra_health");
+        this.hydraHealthIncreaseRate = json.optDouble("hydra_health_increase_rate");
+        this.hydraHealthIncreaseAmount = json.optDouble("hydra_health_increase_amount");
+        this.assassinAttack = json.optDouble("assassin_attack");
+        this.assassinHealth = json.optDouble("assassin_health");
+        this.assassinBribeFailRate = json.optDouble("assassin_bribe_fail_rate");
+    }
+
+    /**
+     * get a config by name, reading it from the configs folder the first time
+     * @param name config file name without extension
+     * @return the config
+     * @throws IOException if the config cannot be read
+     * @throws IllegalArgumentException if the config is missing a value
+     */
+    public static GameConfig load(String name) throws IOException {
+        GameConfig config = CACHE.get(name);
+        if (config == null) {
+            config = parse(name, new JSONObject(FileLoader.loadResourceFile("configs/" + name + ".json")));
+            CACHE.put(name, config);
+        }
+        return config;
+    }
+
+    public static GameConfig parse(String name, JSONObject json) {
+        try {
+            return new GameConfig(name, json);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid config " + name + ": " + e.getMessage());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getEnemyGoal() {
+        return enemyGoal;
+    }
+
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    public int getPlayerAttack() {
+        return playerAttack;
+    }
+
+    public int getZombieAttack() {
+        return zombieAttack;
+    }
+
+    public int getZombieHealth() {
+        return zombieHealth;
+    }
+
+    public int getSpiderAttack() {
+        return spiderAttack;
+    }
+
+    public int getSpiderHealth() {
+        return spiderHealth;
+    }
+
+    public int getSpiderSpawnRate() {
+        return spiderSpawnRate;
+    }
+
+    public int getZombieSpawnRate() {
+        return zombieSpawnRate;
+    }
+
+    public int getMercenaryAttack() {
+        return mercenaryAttack;
+    }
+
+    public int getMercenaryHealth() {
+        return mercenaryHealth;
+    }
+
+    public int getBribeAmount() {
+        return bribeAmount;
+    }
+
+    public int getBribeRadius() {
+        return bribeRadius;
+    }
+
+    public int getAllyAttack() {
+        return allyAttack;
+    }
+
+    public int getAllyDefence() {
+        return allyDefence;
+    }
+
+    public int getTreasureGoal() {
+        return treasureGoal;
+    }
+
+    public int getInvincibilityPotionDuration() {
+        return invincibilityPotionDuration;
+    }
+
+    public int getInvisibilityPotionDuration() {
+        return invisibilityPotionDuration;
+    }
+
+    public int getBombRadius() {
+        return bombRadius;
+    }
+
+    public int getSwordAttack() {
+        return swordAttack;
+    }
+
+    public int getSwordDurability() {
+        return swordDurability;
+    }
+
+    public int getBowDurability() {
+        return bowDurability;
+    }
+
+    public int getShieldDefence() {
+        return shieldDefence;
+    }
+
+    public int getShieldDurability() {
+        return shieldDurability;
+    }
+
+    public int getHistoryCapacity() {
+        return historyCapacity;
+    }
+
+    public int getMidnightArmourAttack() {
+        return require(midnightArmourAttack, "midnight_armour_attack");
+    }
+
+    public int getMidnightArmourDefence() {
+        return require(midnightArmourDefence, "midnight_armour_defence");
+    }
+
+    public int getMindControlDuration() {
+        return require(mindControlDuration, "mind_control_duration");
+    }
+
+    public int getAssassinBribeAmount() {
+        return require(assassinBribeAmount, "assassin_bribe_amount");
+    }
+
+    public int getAssassinReconRadius() {
+        return require(assassinReconRadius, "assassin_recon_radius");
+    }
+
+    public double getHydraAttack() {
+        return require(hydraAttack, "hydra_attack");
+    }
+
+    public double getHydraHealth() {
+        return require(hydraHealth, "hydra_health");
+    }
+
+    public double getHydraHealthIncreaseRate() {
+        return require(hydraHealthIncreaseRate, "hydra_health_increase_rate");
+    }
+
+    public double getHydraHealthIncreaseAmount() {
+        return require(hydraHealthIncreaseAmount, "hydra_health_increase_amount");
+    }
+
+    public double getAssassinAttack() {
+        return require(assassinAttack, "assassin_attack");
+    }
+
+    public double getAssassinHealth() {
+        return require(assassinHealth, "assassin_health");
+    }
+
+    public double getAssassinBribeFailRate() {
+        return require(assassinBribeFailRate, "assassin_bribe_fail_rate");
+    }
+
+    private int require(int value, String key) {
+        if (value == MISSING_INT) {
+            throw new IllegalArgumentException("Config " + name + " is missing " + key);
+        }
+        return value;
+    }
+
+    private double require(double value, String key) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Config " + name + " is missing " + key);
+        }
+        return value;
+    }
+}
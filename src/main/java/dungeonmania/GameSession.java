@@ -0,0 +1,196 @@
+package dungeonmania;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.SerialExecutor;
+
+/*
+ * The game of one session as an actor. Commands and requests are posted to a
+ * mailbox that a single consumer works through in order, so callers never
+ * wait on a lock and the game is only ever touched by one thread at a time.
+ * Commands that arrive back to back, such as queued movement keys, are applied
+ * as one batch: each is applied in turn and one response, the state after the
+ * last of them, completes every command of the batch that succeeded. The
+ * response is only built if one of those commands asks for it.
+ */
+public class GameSession {
+    private final DungeonManiaController controller;
+    private final SerialExecutor consumer;
+    private final Queue<Message> mailbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param controller the game, only used by this session from now on
+     * @param executor runs the consumer, Runnable::run runs it on the thread that posted to an empty mailbox
+     */
+    public GameSession(DungeonManiaController controller, Executor executor) {
+        this.controller = controller;
+        this.consumer = new SerialExecutor(executor);
+    }
+
+    /**
+     * post a command to the game
+     * @param action
+     * @return the response after the batch the command was applied in, or
+     *         the exception the command threw
+     * @throws IllegalStateException if the session is closed
+     */
+    public CompletableFuture<DungeonResponse> send(Action action) {
+        return send(action, (controller, response) -> response);
+    }
+
+    /**
+     * post a command to the game, answering with something made from the response
+     * @param action
+     * @param reply turns the response after the batch into the answer, run by the consumer
+     * @return the answer, or the exception the command threw
+     * @throws IllegalStateException if the session is closed
+     */
+    public <T> CompletableFuture<T> send(Action action, BiFunction<DungeonManiaController, DungeonResponse, T> reply) {
+        Command<T> command = new Command<>(action, reply, true);
+        post(command);
+        return command.result;
+    }
+
+    /**
+     * post a command to the game, answering straight from the game without a response
+     * being built for it, such as when the game is streamed to the client
+     * @param action
+     * @param reply run by the consumer once the batch the command was in has been applied
+     * @return the answer, or the exception the command threw
+     * @throws IllegalStateException if the session is closed
+     */
+    public <T> CompletableFuture<T> sendThen(Action action, Function<DungeonManiaController, T> reply) {
+        Command<T> command = new Command<>(action, (controller, response) -> reply.apply(controller), false);
+        post(command);
+        return command.result;
+    }
+
+    /**
+     * post a request that needs more than a command, such as a new game or a save
+     * @param request
+     * @return what the request returns, or the exception it throws
+     * @throws IllegalStateException if the session is closed
+     */
+    public <T> CompletableFuture<T> ask(Function<DungeonManiaController, T> request) {
+        Request<T> message = new Request<>(request);
+        post(message);
+        return message.result;
+    }
+
+    /**
+     * @return true if nothing is waiting in the mailbox or being applied
+     */
+    public boolean isIdle() {
+        return consumer.isIdle() && mailbox.isEmpty();
+    }
+
+    /**
+     * close the session if it is idle, a closed session takes no more messages
+     * @return true if the session is closed
+     */
+    public boolean tryClose() {
+        return mailbox.isEmpty() && consumer.tryClose();
+    }
+
+    private void post(Message message) {
+        mailbox.add(message);
+        if (!consumer.offer(this::consume)) {
+            mailbox.remove(message);
+            throw new IllegalStateException("Session is closed");
+        }
+    }
+
+    // every message posts one of these, so later ones often find the mailbox already empty
+    private void consume() {
+        Message message;
+        while ((message = mailbox.poll()) != null) {
+            if (message instanceof Request) {
+                ((Request<?>) message).run(controller);
+                continue;
+            }
+            List<Command<?>> batch = new ArrayList<>();
+            batch.add((Command<?>) message);
+            while (mailbox.peek() instanceof Command) {
+                batch.add((Command<?>) mailbox.poll());
+            }
+            applyBatch(batch);
+        }
+    }
+
+    private void applyBatch(List<Command<?>> batch) {
+        List<Command<?>> applied = new ArrayList<>(batch.size());
+        for (Command<?> command: batch) {
+            try {
+                controller.apply(command.action);
+                applied.add(command);
+            } catch (Throwable e) {
+                command.result.completeExceptionally(e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        DungeonResponse response = null;
+        if (applied.stream().anyMatch(command -> command.needsResponse)) {
+            try {
+                response = controller.getDungeonResponseModel();
+            } catch (Throwable e) {
+                applied.forEach(command -> command.result.completeExceptionally(e));
+                return;
+            }
+        }
+        for (Command<?> command: applied) {
+            command.reply(controller, response);
+        }
+    }
+
+    private interface Message {}
+
+    private static final class Command<T> implements Message {
+        private final Action action;
+        private final BiFunction<DungeonManiaController, DungeonResponse, T> reply;
+        private final boolean needsResponse;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Command(Action action, BiFunction<DungeonManiaController, DungeonResponse, T> reply, boolean needsResponse) {
+            this.action = action;
+            this.reply = reply;
+            this.needsResponse = needsResponse;
+        }
+
+        void reply(DungeonManiaController controller, DungeonResponse response) {
+            try {
+                result.complete(reply.apply(controller, response));
+            } catch (Throwable e) {
+                // an Error too, or the caller waiting on the result would wait forever
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Request<T> implements Message {
+        private final Function<DungeonManiaController, T> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Request(Function<DungeonManiaController, T> request) {
+            this.request = request;
+        }
+
+        void run(DungeonManiaController controller) {
+            try {
+                result.complete(request.apply(controller));
+            } catch (Throwable e) {
+                // an Error too, or the caller waiting on the result would wait forever
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
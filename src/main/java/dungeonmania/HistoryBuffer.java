@@ -0,0 +1,287 @@
+package dungeonmania;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+
+/*
+ * Fixed capacity history keyed by tick.
+ * The most recent entries are kept in a ring in memory. An entry pushed out of
+ * the ring is spilled to an archive file on disk and only read back when it is
+ * asked for, so heap use stays flat however long the game runs.
+ * Entries replaced after being archived leave their old copy behind, once
+ * those make up most of the archive it is rewritten without them. The archive
+ * lasts until the buffer is closed. A buffer nobody closes deletes its archive
+ * once it is garbage collected, or at the latest when the JVM exits.
+ */
+public class HistoryBuffer<T extends Serializable> implements Serializable, AutoCloseable {
+    private static final long serialVersionUID = 609348588354135325L;
+
+    private static final int NO_KEY = -1;
+    // replaced entries the archive holds before it is worth rewriting
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+    // deletes the archives of buffers dropped without being closed
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int capacity;
+    private int maxKey = NO_KEY;
+
+    private transient Object[] values;
+    // key owning each ring slot, NO_KEY when the slot is empty
+    private transient int[] keys;
+
+    // created on the first spill, null once closed
+    private transient Archive archive;
+    private transient Cleaner.Cleanable cleanable;
+
+    public HistoryBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive");
+        }
+        this.capacity = capacity;
+        initRing();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void put(int key, T value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Invalid key");
+        }
+        int slot = key % capacity;
+        if (keys[slot] != NO_KEY && keys[slot] != key) {
+            spill(keys[slot], values[slot]);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        maxKey = Math.max(maxKey, key);
+    }
+
+    /**
+     * get the entry for a key, reading it from the archive if it is no longer in memory
+     * @param key
+     * @return the entry, or null if nothing was put for the key
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        if (key < 0 || key > maxKey) {
+            return null;
+        }
+        int slot = key % capacity;
+        if (keys[slot] == key) {
+            return (T) values[slot];
+        }
+        return load(key);
+    }
+
+    public boolean contains(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * delete the archive, entries that were only archived are gone afterwards
+     */
+    @Override
+    public void close() {
+        if (archive == null) {
+            return;
+        }
+        archive = null;
+        cleanable.clean();
+        cleanable = null;
+    }
+
+    /**
+     * @return bytes of archived entries on disk
+     */
+    long getArchiveSize() {
+        try {
+            return archive == null ? 0 : archive.data.length();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void initRing() {
+        values = new Object[capacity];
+        keys = new int[capacity];
+        Arrays.fill(keys, NO_KEY);
+    }
+
+    private void spill(int key, Object value) {
+        try {
+            if (archive == null) {
+                archive = new Archive();
+                cleanable = CLEANER.register(this, archive);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(value);
+            }
+            archive.write(key, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T load(int key) {
+        if (archive == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = archive.read(key);
+            if (bytes == null) {
+                return null;
+            }
+            try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (T) input.readObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the archive file is not part of a save, so every entry is written out in key order
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (int key = 0; key <= maxKey; key++) {
+            T value = get(key);
+            if (value != null) {
+                out.writeInt(key);
+                out.writeObject(value);
+            }
+        }
+        out.writeInt(NO_KEY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initRing();
+        maxKey = NO_KEY;
+        for (int key = in.readInt(); key != NO_KEY; key = in.readInt()) {
+            put(key, (T) in.readObject());
+        }
+    }
+
+    /*
+     * The archive files of one buffer. It holds no reference to the buffer,
+     * so it can be run by the cleaner once the buffer is unreachable.
+     * The files are also deleted when the JVM exits, in case neither happens.
+     */
+    private static final class Archive implements Runnable {
+        // index holds the data offset + 1 of each key
+        private final File indexFile;
+        private final RandomAccessFile index;
+        private File dataFile;
+        private RandomAccessFile data;
+        // bytes of the data file taken by replaced entries
+        private long replacedBytes;
+
+        Archive() throws IOException {
+            indexFile = createFile(".idx");
+            dataFile = createFile(".dat");
+            index = new RandomAccessFile(indexFile, "rw");
+            data = new RandomAccessFile(dataFile, "rw");
+        }
+
+        private static File createFile(String suffix) throws IOException {
+            File file = File.createTempFile("dungeon-history", suffix);
+            file.deleteOnExit();
+            return file;
+        }
+
+        void write(int key, byte[] bytes) throws IOException {
+            long replaced = findOffset(key);
+            if (replaced >= 0) {
+                data.seek(replaced);
+                replacedBytes += Integer.BYTES + data.readInt();
+            }
+            long offset = data.length();
+            data.seek(offset);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+            index.seek((long) key * Long.BYTES);
+            index.writeLong(offset + 1);
+            if (replacedBytes >= MIN_COMPACT_BYTES && replacedBytes * 2 > data.length()) {
+                compact();
+            }
+        }
+
+        // the bytes archived for a key, or null if it was never archived
+        byte[] read(int key) throws IOException {
+            long offset = findOffset(key);
+            if (offset < 0) {
+                return null;
+            }
+            data.seek(offset);
+            byte[] bytes = new byte[data.readInt()];
+            data.readFully(bytes);
+            return bytes;
+        }
+
+        // offset of the archived entry for a key, or -1 if it was never archived
+        private long findOffset(int key) throws IOException {
+            long position = (long) key * Long.BYTES;
+            if (position + Long.BYTES > index.length()) {
+                return -1;
+            }
+            index.seek(position);
+            return index.readLong() - 1;
+        }
+
+        // copy the entries still indexed into a new data file, dropping replaced ones
+        private void compact() throws IOException {
+            File compacted = createFile(".dat");
+            try (RandomAccessFile output = new RandomAccessFile(compacted, "rw")) {
+                int keys = (int) (index.length() / Long.BYTES);
+                for (int key = 0; key < keys; key++) {
+                    byte[] bytes = read(key);
+                    if (bytes == null) {
+                        continue;
+                    }
+                    long newOffset = output.getFilePointer();
+                    output.writeInt(bytes.length);
+                    output.write(bytes);
+                    index.seek((long) key * Long.BYTES);
+                    index.writeLong(newOffset + 1);
+                }
+            } catch (IOException e) {
+                compacted.delete();
+                throw e;
+            }
+            data.close();
+            dataFile.delete();
+            dataFile = compacted;
+            data = new RandomAccessFile(dataFile, "rw");
+            replacedBytes = 0;
+        }
+
+        // close and delete the files, run once by close or the cleaner
+        @Override
+        public void run() {
+            try {
+                index.close();
+                data.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                indexFile.delete();
+                dataFile.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package dungeonmania;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import dungeonmania.battles.Battle;
+import dungeonmania.battles.FightStrategy;
+import dungeonmania.battles.InvincibleFightStrategy;
+import dungeonmania.battles.InvincibleRunStrategy;
+import dungeonmania.battles.InvisibleAvoidStrategy;
+import dungeonmania.battles.Round;
+import dungeonmania.enemy.Assassin;
+import dungeonmania.enemy.Hydra;
+import dungeonmania.enemy.Mercenary;
+import dungeonmania.enemy.Spider;
+import dungeonmania.enemy.ZombieToast;
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Door;
+import dungeonmania.entities.Exit;
+import dungeonmania.entities.FloorSwitch;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Portal;
+import dungeonmania.entities.SwampTile;
+import dungeonmania.entities.TimeTravellingPortal;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.ZombieToastSpawner;
+import dungeonmania.goals.AndGoal;
+import dungeonmania.goals.BoulderGoal;
+import dungeonmania.goals.EnemyGoal;
+import dungeonmania.goals.ExitGoal;
+import dungeonmania.goals.OrGoal;
+import dungeonmania.goals.TreasureGoal;
+import dungeonmania.items.Arrow;
+import dungeonmania.items.Bomb;
+import dungeonmania.items.InvinciblePotion;
+import dungeonmania.items.InvisiblePotion;
+import dungeonmania.items.Key;
+import dungeonmania.items.SunStone;
+import dungeonmania.items.TimeTurner;
+import dungeonmania.items.Treasure;
+import dungeonmania.items.Wood;
+import dungeonmania.util.IdAllocator;
+import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
+import dungeonmania.weapon.Bow;
+import dungeonmania.weapon.MidnightArmour;
+import dungeonmania.weapon.Sceptre;
+import dungeonmania.weapon.Shield;
+import dungeonmania.weapon.Sword;
+
+/*
+ * Compact binary save format for the dungeon object graph.
+ *
+ * A save starts with the magic "DMSV" and a format version. Every value is a
+ * one byte tag followed by its payload. Integers are zigzag varints, positions
+ * are three varints, and strings (entity types, ids, ...) are interned: the
+ * first occurrence is written out and later ones refer back to it by number.
+ * An object is written as the number its class has in the table below,
+ * followed by whatever the class writes in Saveable.save. A save can only
+ * create the classes in the table. Objects shared between several places, or
+ * referring back to each other, are written once and referred back to by
+ * number. Fields are not named in the save, so a class that gains a field
+ * writes it last, VERSION goes up, and load reads the field only when
+ * Input.getVersion() says the save has it. Saves from OLDEST_VERSION up to
+ * VERSION can be read. Version 1 saves named their classes and fields and
+ * cannot be read by the encoders.
+ */
+public final class SaveCodec {
+    public static final int VERSION = 2;
+    // the first version written by the encoders
+    public static final int OLDEST_VERSION = 2;
+    private static final byte[] MAGIC = {'D', 'M', 'S', 'V'};
+
+    private static final int NULL = 0;
+    private static final int BACK_REFERENCE = 1;
+    private static final int OBJECT = 2;
+    private static final int STRING = 3;
+    private static final int INT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int TRUE = 7;
+    private static final int FALSE = 8;
+    private static final int POSITION = 9;
+    private static final int LIST = 10;
+
+    // writeString writes null as 0 and a new string as 1, references to earlier strings start at 2
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+
+    private static final Map<Integer, Supplier<? extends Saveable>> FACTORIES = new HashMap<>();
+    private static final Map<Class<?>, Integer> TYPES = new HashMap<>();
+
+    /*
+     * Every class a save can hold, by the number it is saved under. The numbers
+     * are written to saves, so a number is never changed or given to another class.
+     * Objects are created blank here and filled in by Saveable.load.
+     */
+    static {
+        register(1, Dungeon.class, Dungeon::new);
+        register(2, SpiderSpawner.class, () -> new SpiderSpawner(0));
+        register(3, SeededRandom.class, () -> new SeededRandom(0));
+        register(4, IdAllocator.class, IdAllocator::new);
+
+        register(10, Player.class, () -> new Player(null, 0, 0, null));
+        register(11, Wall.class, () -> new Wall(null, null));
+        register(12, Exit.class, () -> new Exit(null, null));
+        register(13, Boulder.class, () -> new Boulder(null, null));
+        register(14, FloorSwitch.class, () -> new FloorSwitch(null, null));
+        register(15, Door.class, () -> new Door(null, null, 0));
+        register(16, Portal.class, () -> new Portal(null, null, null));
+        register(17, ZombieToastSpawner.class, () -> new ZombieToastSpawner(null, null));
+        register(18, SwampTile.class, () -> new SwampTile(null, 0, null));
+        register(19, TimeTravellingPortal.class, () -> new TimeTravellingPortal(null, null));
+
+        register(30, Spider.class, () -> new Spider(new Position(0, 0), 0, 0, null));
+        register(31, ZombieToast.class, () -> new ZombieToast(null, 0, 0, null));
+        register(32, Mercenary.class, () -> new Mercenary(null, 0, 0, 0, 0, 0, 0, null));
+        register(33, Assassin.class, () -> new Assassin(null, 0, 0, 0, 0, 0, 0, 0, 0, null));
+        register(34, Hydra.class, () -> new Hydra(null, 0, 0, 0, 0, null));
+
+        register(50, Treasure.class, () -> new Treasure(null, null, 0));
+        register(51, Key.class, () -> new Key(null, null, 0));
+        register(52, InvinciblePotion.class, () -> new InvinciblePotion(null, null, 0));
+        register(53, InvisiblePotion.class, () -> new InvisiblePotion(null, null, 0));
+        register(54, Wood.class, () -> new Wood(null, null));
+        register(55, Arrow.class, () -> new Arrow(null, null));
+        register(56, Bomb.class, () -> new Bomb(null, null, 0));
+        register(57, SunStone.class, () -> new SunStone(null, null, 0));
+        register(58, TimeTurner.class, () -> new TimeTurner(null, null));
+        register(59, Sword.class, () -> new Sword(null, 0, 0, null));
+        register(60, Bow.class, () -> new Bow(null, 0, 0, null));
+        register(61, Shield.class, () -> new Shield(null, 0, 0, null));
+        register(62, Sceptre.class, () -> new Sceptre(null, 0, 0, 0, null));
+        register(63, MidnightArmour.class, () -> new MidnightArmour(null, 0, 0, 0, null));
+
+        register(70, AndGoal.class, () -> new AndGoal(null, null));
+        register(71, OrGoal.class, () -> new OrGoal(null, null));
+        register(72, ExitGoal.class, () -> new ExitGoal(null));
+        register(73, TreasureGoal.class, () -> new TreasureGoal(null));
+        register(74, BoulderGoal.class, () -> new BoulderGoal(null));
+        register(75, EnemyGoal.class, () -> new EnemyGoal(null));
+
+        register(80, Battle.class, Battle::new);
+        register(81, Round.class, Round::new);
+        register(82, FightStrategy.class, FightStrategy::new);
+        register(83, InvincibleFightStrategy.class, InvincibleFightStrategy::new);
+        register(84, InvincibleRunStrategy.class, InvincibleRunStrategy::new);
+        register(85, InvisibleAvoidStrategy.class, InvisibleAvoidStrategy::new);
+    }
+
+    private SaveCodec() {}
+
+    private static <T extends Saveable> void register(int type, Class<T> c, Supplier<T> factory) {
+        FACTORIES.put(type, factory);
+        TYPES.put(c, type);
+    }
+
+    /**
+     * @param header the first bytes of a file
+     * @return true if the bytes start a save written by this codec
+     */
+    public static boolean isSaveCodecHeader(byte[] header) {
+        if (header.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void write(Saveable root, OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(out);
+        output.write(MAGIC);
+        Output writer = new Output(output);
+        writer.writeVarInt(VERSION);
+        writer.writeObject(root);
+        output.flush();
+    }
+
+    public static Object read(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        byte[] header = new byte[MAGIC.length];
+        input.readFully(header);
+        if (!isSaveCodecHeader(header)) {
+            throw new StreamCorruptedException("Not a dungeon save");
+        }
+        Input reader = new Input(input);
+        int version = reader.readVarInt();
+        if (version < OLDEST_VERSION || version > VERSION) {
+            throw new InvalidClassException("Save format version " + version + " cannot be read, expected "
+                    + OLDEST_VERSION + " to " + VERSION);
+        }
+        reader.version = version;
+        return reader.readObject(Object.class);
+    }
+
+    /*
+     * Writes the fields of saved objects
+     */
+    public static final class Output {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Object, Integer> handles = new IdentityHashMap<>();
+
+        private Output(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void writeInt(int value) throws IOException {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        public void writeLong(long value) throws IOException {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.writeByte((int) zigzag);
+        }
+
+        public void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        public void writeBoolean(boolean value) throws IOException {
+            out.writeBoolean(value);
+        }
+
+        /**
+         * @param value a string, may be null
+         */
+        public void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(NULL_STRING);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            writeVarInt(NEW_STRING);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * @param value null, a string, boxed number or boolean, position, list of
+         *              these, or an object of a class in the table
+         */
+        public void writeObject(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT);
+                writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Position) {
+                Position position = (Position) value;
+                out.writeByte(POSITION);
+                writeInt(position.getX());
+                writeInt(position.getY());
+                writeInt(position.getLayer());
+            } else if (writeBackReference(value)) {
+                return;
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                out.writeByte(LIST);
+                writeVarInt(list.size());
+                for (Object element: list) {
+                    writeObject(element);
+                }
+            } else {
+                Integer type = TYPES.get(value.getClass());
+                if (type == null) {
+                    throw new NotSerializableException(value.getClass().getName());
+                }
+                out.writeByte(OBJECT);
+                writeVarInt(type);
+                ((Saveable) value).save(this);
+            }
+        }
+
+        private boolean writeBackReference(Object value) throws IOException {
+            Integer handle = handles.get(value);
+            if (handle == null) {
+                handles.put(value, handles.size());
+                return false;
+            }
+            out.writeByte(BACK_REFERENCE);
+            writeVarInt(handle);
+            return true;
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    /*
+     * Reads back the fields of saved objects, in the order they were written
+     */
+    public static final class Input {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+        private final List<Object> handles = new ArrayList<>();
+        private int version;
+
+        private Input(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return format version of the save being read
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        public int readInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public long readLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new StreamCorruptedException("Invalid varint");
+        }
+
+        public double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        public boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        public String readString() throws IOException {
+            int index = readVarInt();
+            if (index == NULL_STRING) {
+                return null;
+            }
+            if (index != NEW_STRING) {
+                if (index - 2 >= strings.size()) {
+                    throw new StreamCorruptedException("Invalid string reference " + index);
+                }
+                return strings.get(index - 2);
+            }
+            byte[] bytes = new byte[readLength()];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        /**
+         * @param type what the value must be, a boxed type for numbers and booleans
+         * @return the value, or null
+         * @throws InvalidClassException if the saved value is not of the type
+         */
+        public <T> T readObject(Class<T> type) throws IOException {
+            Object value = readValue();
+            if (value != null && !type.isInstance(value)) {
+                throw new InvalidClassException(value.getClass().getName(), "expected " + type.getName());
+            }
+            return type.cast(value);
+        }
+
+        /**
+         * @param elementType what each element must be
+         * @return the list, or null
+         * @throws InvalidClassException if the saved value is not a list of the type
+         */
+        @SuppressWarnings("unchecked")
+        public <T> List<T> readList(Class<T> elementType) throws IOException {
+            List<?> list = readObject(List.class);
+            if (list != null) {
+                for (Object element: list) {
+                    if (element != null && !elementType.isInstance(element)) {
+                        throw new InvalidClassException(element.getClass().getName(), "expected " + elementType.getName());
+                    }
+                }
+            }
+            return (List<T>) list;
+        }
+
+        private Object readValue() throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case BACK_REFERENCE:
+                    int handle = readVarInt();
+                    if (handle >= handles.size()) {
+                        throw new StreamCorruptedException("Invalid back reference " + handle);
+                    }
+                    return handles.get(handle);
+                case STRING:
+                    return readString();
+                case INT:
+                    return readInt();
+                case LONG:
+                    return readLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case TRUE:
+                    return true;
+                case FALSE:
+                    return false;
+                case POSITION:
+                    return new Position(readInt(), readInt(), readInt());
+                case LIST:
+                    return readListValue();
+                case OBJECT:
+                    return readSaveable();
+                default:
+                    throw new StreamCorruptedException("Invalid tag " + tag);
+            }
+        }
+
+        private List<Object> readListValue() throws IOException {
+            int size = readLength();
+            List<Object> list = new ArrayList<>(Math.min(size, 1024));
+            handles.add(list);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue());
+            }
+            return list;
+        }
+
+        private Saveable readSaveable() throws IOException {
+            int type = readVarInt();
+            Supplier<? extends Saveable> factory = FACTORIES.get(type);
+            if (factory == null) {
+                throw new InvalidClassException("Unknown saved type " + type);
+            }
+            Saveable object = factory.get();
+            // registered before its fields are read, so they can refer back to it
+            handles.add(object);
+            object.load(this);
+            return object;
+        }
+
+        private int readLength() throws IOException {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new StreamCorruptedException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Invalid varint");
+        }
+    }
+}
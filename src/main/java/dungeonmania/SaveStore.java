@@ -0,0 +1,368 @@
+package dungeonmania;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * All saved games in one append-only file.
+ *
+ * Each save is appended as a record: a record marker, the save name and the
+ * encoded game. Now and then an index of every save so far is appended as a
+ * checkpoint, once as many saves have been made since the last checkpoint as
+ * it holds, so saving costs the same however many saves there are. The file
+ * ends with a trailer giving the offset of the last checkpoint and a trailer
+ * marker. Opening the store reads the last checkpoint and the records after
+ * it, and a save is loaded by memory mapping its record. If the trailer is
+ * missing, e.g. the game stopped while saving, the index is rebuilt by
+ * scanning every record.
+ *
+ * Saves are never deleted, so the file grows with every save. A record is
+ * only superseded when the same name is saved twice in one millisecond, and
+ * superseded records are left in place.
+ */
+public class SaveStore {
+    public static final String FILE_NAME = "games.store";
+
+    private static final int RECORD_MAGIC = 0x444d5352; // "DMSR"
+    private static final int INDEX_MAGIC = 0x444d5349; // "DMSI"
+    private static final int TRAILER_MAGIC = 0x444d5354; // "DMST"
+    private static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+    private static final int NO_CHECKPOINT = -1;
+    // saves made before the first checkpoint is written
+    private static final int MIN_CHECKPOINT_RECORDS = 32;
+
+    private static final Map<Path, SaveStore> STORES = new HashMap<>();
+
+    private final Path path;
+    // saves by name, in the order they were saved
+    private final Map<String, Entry> index = new LinkedHashMap<>();
+    // newest save for each name given to saveGame
+    private final Map<String, String> latest = new HashMap<>();
+    // where the trailer starts, the next record is written over it
+    private long dataEnd = 0;
+    private long checkpointStart = NO_CHECKPOINT;
+    private int checkpointSize = 0;
+    private int sinceCheckpoint = 0;
+
+    // what the file looked like when the index was last read or written
+    private Object fileKey;
+    private long fileSize = -1;
+
+    private SaveStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * get the store for a file, shared by every controller using the same file
+     * @param path
+     * @return the store
+     */
+    public static synchronized SaveStore open(Path path) {
+        return STORES.computeIfAbsent(path.toAbsolutePath().normalize(), SaveStore::new);
+    }
+
+    public synchronized List<String> getNames() throws IOException {
+        refresh();
+        return new ArrayList<>(index.keySet());
+    }
+
+    /**
+     * find a save by its full name, the name it was saved under,
+     * or otherwise the first save starting with the name
+     * @param name
+     * @return the full name of the save, or null if there is none
+     */
+    public synchronized String find(String name) throws IOException {
+        refresh();
+        if (index.containsKey(name)) {
+            return name;
+        }
+        String newest = latest.get(name);
+        if (newest != null) {
+            return newest;
+        }
+        for (String save: index.keySet()) {
+            if (save.startsWith(name)) {
+                return save;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void append(String name, byte[] data) throws IOException {
+        refresh();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(3 * Integer.BYTES + nameBytes.length + data.length);
+            record.putInt(RECORD_MAGIC).putInt(nameBytes.length).put(nameBytes).putInt(data.length).put(data);
+            record.flip();
+            long recordStart = dataEnd;
+            writeFully(channel, record, recordStart);
+
+            put(name, new Entry(recordStart + record.limit() - data.length, data.length));
+            dataEnd = recordStart + record.limit();
+            sinceCheckpoint++;
+            if (sinceCheckpoint >= Math.max(MIN_CHECKPOINT_RECORDS, checkpointSize)) {
+                ByteBuffer checkpoint = encodeIndex();
+                writeFully(channel, checkpoint, dataEnd);
+                checkpointStart = dataEnd;
+                checkpointSize = index.size();
+                sinceCheckpoint = 0;
+                dataEnd += checkpoint.limit();
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH);
+            trailer.putLong(checkpointStart).putInt(TRAILER_MAGIC);
+            trailer.flip();
+            writeFully(channel, trailer, dataEnd);
+            channel.truncate(dataEnd + TRAILER_LENGTH);
+        }
+        remember();
+    }
+
+    /**
+     * @param name full name of a save
+     * @return stream over the memory mapped save, or null if there is no such save
+     */
+    public synchronized InputStream read(String name) throws IOException {
+        refresh();
+        Entry entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length));
+        }
+    }
+
+    // reread the index if the file was changed or removed since it was last read
+    private void refresh() throws IOException {
+        if (!Files.exists(path)) {
+            if (fileSize != -1) {
+                clear();
+            }
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (attributes.size() == fileSize && Objects.equals(attributes.fileKey(), fileKey)) {
+            return;
+        }
+        clear();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (!readTrailer(channel)) {
+                scanRecords(channel, 0, channel.size());
+            }
+        }
+        remember();
+    }
+
+    private void remember() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        fileSize = attributes.size();
+        fileKey = attributes.fileKey();
+    }
+
+    private void clear() {
+        index.clear();
+        latest.clear();
+        dataEnd = 0;
+        checkpointStart = NO_CHECKPOINT;
+        checkpointSize = 0;
+        sinceCheckpoint = 0;
+        fileSize = -1;
+        fileKey = null;
+    }
+
+    private boolean readTrailer(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < TRAILER_LENGTH) {
+            return false;
+        }
+        long end = size - TRAILER_LENGTH;
+        ByteBuffer trailer = readFully(channel, end, TRAILER_LENGTH);
+        long checkpoint = trailer.getLong();
+        if (trailer.getInt() != TRAILER_MAGIC || checkpoint < NO_CHECKPOINT || checkpoint >= end) {
+            return false;
+        }
+        long position = 0;
+        if (checkpoint != NO_CHECKPOINT) {
+            position = readIndex(channel, checkpoint, end);
+        }
+        int checkpointed = index.size();
+        if (position < 0 || scanRecords(channel, position, end) != end) {
+            clear();
+            return false;
+        }
+        checkpointStart = checkpoint;
+        checkpointSize = checkpointed;
+        return true;
+    }
+
+    // read the index checkpoint starting at an offset, returning where it ends or -1 if it is damaged
+    private long readIndex(FileChannel channel, long start, long end) throws IOException {
+        if (end - start < 3 * Integer.BYTES) {
+            return -1;
+        }
+        ByteBuffer header = readFully(channel, start, 2 * Integer.BYTES);
+        int length = header.getInt() == INDEX_MAGIC ? header.getInt() : -1;
+        long indexEnd = start + 2 * Integer.BYTES + length;
+        if (length < 0 || indexEnd > end) {
+            return -1;
+        }
+        ByteBuffer checkpoint = channel.map(FileChannel.MapMode.READ_ONLY, start + 2 * Integer.BYTES, length);
+        try {
+            int count = checkpoint.getInt();
+            for (int i = 0; i < count; i++) {
+                String name = readName(checkpoint);
+                put(name, new Entry(checkpoint.getLong(), checkpoint.getInt()));
+            }
+        } catch (RuntimeException e) {
+            return -1;
+        }
+        return indexEnd;
+    }
+
+    /**
+     * index the records between two offsets, skipping checkpoints.
+     * Only the headers are read, so the file may be bigger than one buffer can map.
+     * @return where the last whole record ends
+     */
+    private long scanRecords(FileChannel channel, long start, long end) throws IOException {
+        long position = start;
+        while (position + 2 * Integer.BYTES <= end) {
+            ByteBuffer header = readFully(channel, position, 2 * Integer.BYTES);
+            int magic = header.getInt();
+            int length = header.getInt();
+            long next = position + 2 * Integer.BYTES + (long) length;
+            if (length < 0 || next > end) {
+                // the last record was cut off, keep the ones before it
+                break;
+            }
+            if (magic == INDEX_MAGIC) {
+                position = next;
+                continue;
+            }
+            if (magic != RECORD_MAGIC || next + Integer.BYTES > end) {
+                break;
+            }
+            ByteBuffer name = readFully(channel, position + 2 * Integer.BYTES, length + Integer.BYTES);
+            byte[] nameBytes = new byte[length];
+            name.get(nameBytes);
+            int dataLength = name.getInt();
+            long dataStart = next + Integer.BYTES;
+            if (dataLength < 0 || dataStart + dataLength > end) {
+                break;
+            }
+            put(new String(nameBytes, StandardCharsets.UTF_8), new Entry(dataStart, dataLength));
+            sinceCheckpoint++;
+            position = dataStart + dataLength;
+        }
+        dataEnd = position;
+        return position;
+    }
+
+    private ByteBuffer encodeIndex() {
+        List<byte[]> names = new ArrayList<>();
+        int length = Integer.BYTES;
+        for (String name: index.keySet()) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(nameBytes);
+            length += Integer.BYTES + nameBytes.length + Long.BYTES + Integer.BYTES;
+        }
+        ByteBuffer checkpoint = ByteBuffer.allocate(2 * Integer.BYTES + length);
+        checkpoint.putInt(INDEX_MAGIC).putInt(length).putInt(index.size());
+        int i = 0;
+        for (Entry entry: index.values()) {
+            byte[] nameBytes = names.get(i++);
+            checkpoint.putInt(nameBytes.length).put(nameBytes).putLong(entry.offset).putInt(entry.length);
+        }
+        checkpoint.flip();
+        return checkpoint;
+    }
+
+    private void put(String name, Entry entry) {
+        index.remove(name);
+        index.put(name, entry);
+        // saves are named "<name>-<timestamp>" by saveGame
+        int separator = name.lastIndexOf('-');
+        if (separator > 0) {
+            latest.put(name.substring(0, separator), name);
+        }
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        byte[] name = new byte[buffer.getInt()];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of save store");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static class Entry {
+        private final long offset;
+        private final int length;
+
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    // reads straight from a mapped buffer without copying it onto the heap first
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
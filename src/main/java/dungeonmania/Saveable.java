@@ -0,0 +1,18 @@
+package dungeonmania;
+
+import java.io.IOException;
+
+/*
+ * An object saved with a game by SaveCodec. Each class writes the fields it
+ * declares after those of its superclass, and reads them back in the same
+ * order. Fields that are rebuilt after loading are left out.
+ */
+public interface Saveable {
+    void save(SaveCodec.Output out) throws IOException;
+
+    /**
+     * fill in a blank object from a save
+     * @param in
+     */
+    void load(SaveCodec.Input in) throws IOException;
+}
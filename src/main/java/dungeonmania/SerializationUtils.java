@@ -2,31 +2,53 @@ package dungeonmania;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 /*
- * Using Serialization for Persistence
+ * Saving and loading games with the compact binary save format,
+ * saves written with Java serialisation can still be loaded
  */
 public class SerializationUtils {
+    private static final int HEADER_LENGTH = 4;
+    // classes older saves are made of, a save holding anything else is rejected before it is created
+    private static final ObjectInputFilter JAVA_SAVE_FILTER = ObjectInputFilter.Config.createFilter(
+            "dungeonmania.**;java.util.ArrayList;java.util.HashMap;java.util.Map$Entry;java.lang.*;!*");
  
-    public static void serialization(Object obj, String fileName) throws IOException {
-        FileOutputStream file = new FileOutputStream(fileName);
-        BufferedOutputStream buffer = new BufferedOutputStream(file);
-        ObjectOutputStream output = new ObjectOutputStream(buffer);
-        output.writeObject(obj);
-        output.close();
+    public static void serialization(Saveable obj, String fileName) throws IOException {
+        try (BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(fileName))) {
+            SaveCodec.write(obj, output);
+        }
+    }
+
+    public static byte[] serialization(Saveable obj) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SaveCodec.write(obj, output);
+        return output.toByteArray();
     }
 
     public static Object deserialization(String fileName) throws IOException, ClassNotFoundException {
-        FileInputStream file = new FileInputStream(fileName);
-        BufferedInputStream buffer = new BufferedInputStream(file);
-        ObjectInputStream output = new ObjectInputStream(buffer);
-        Object obj = output.readObject();
-        output.close();
-        return obj;
+        try (InputStream input = new FileInputStream(fileName)) {
+            return deserialization(input);
+        }
+    }
+
+    public static Object deserialization(InputStream in) throws IOException, ClassNotFoundException {
+        BufferedInputStream input = new BufferedInputStream(in);
+        input.mark(HEADER_LENGTH);
+        byte[] header = input.readNBytes(HEADER_LENGTH);
+        input.reset();
+        if (SaveCodec.isSaveCodecHeader(header)) {
+            return SaveCodec.read(input);
+        }
+        // fall back to saves from before the binary format
+        ObjectInputStream output = new ObjectInputStream(input);
+        output.setObjectInputFilter(JAVA_SAVE_FILTER);
+        return output.readObject();
     }
 }
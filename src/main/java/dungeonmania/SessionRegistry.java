@@ -0,0 +1,342 @@
+package dungeonmania;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import dungeonmania.response.models.DungeonResponse;
+
+/*
+ * The game of every session connected to the web server.
+ * Finding a session takes no shared lock and every session is a GameSession
+ * actor with a mailbox of its own, so requests from different players run in
+ * parallel while requests from the same player run one at a time, in order,
+ * without any thread blocking on a lock. Sessions idle for longer than the
+ * idle timeout are dropped, and once the registry is full the least recently
+ * used session that is not busy makes room for a new one.
+ */
+public class SessionRegistry implements AutoCloseable {
+    private static final long MIN_SWEEP_MILLIS = 1000;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+    private final Executor requests;
+
+    private final AtomicInteger peakSessions = new AtomicInteger();
+    private final AtomicLong createdSessions = new AtomicLong();
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private final AtomicLong rejectedSessions = new AtomicLong();
+
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * @param maxSessions most sessions kept at once
+     * @param idleTimeoutMillis how long a session is kept after its last request
+     */
+    public SessionRegistry(int maxSessions, long idleTimeoutMillis) {
+        this(maxSessions, idleTimeoutMillis, Runnable::run);
+    }
+
+    /**
+     * @param maxSessions most sessions kept at once
+     * @param idleTimeoutMillis how long a session is kept after its last request
+     * @param requests runs the requests of a session, by default they run on
+     *                 the thread that made the first of them
+     */
+    public SessionRegistry(int maxSessions, long idleTimeoutMillis, Executor requests) {
+        this(maxSessions, idleTimeoutMillis, requests, System::currentTimeMillis);
+    }
+
+    SessionRegistry(int maxSessions, long idleTimeoutMillis, LongSupplier clock) {
+        this(maxSessions, idleTimeoutMillis, Runnable::run, clock);
+    }
+
+    SessionRegistry(int maxSessions, long idleTimeoutMillis, Executor requests, LongSupplier clock) {
+        if (maxSessions <= 0 || idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Session limits must be positive");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+        this.requests = requests;
+    }
+
+    /**
+     * drop idle sessions in the background until the registry is closed
+     */
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(MIN_SWEEP_MILLIS, idleTimeoutMillis / 2);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * queue an action on the game of a session, starting a new game for a new session.
+     * Actions for the same session run one at a time in the order they were submitted.
+     * @param sessionId
+     * @param action
+     * @return what the action returns, or the exception it throws
+     * @throws IllegalStateException if the registry is full and every session is busy
+     */
+    public <T> CompletableFuture<T> submit(String sessionId, Function<DungeonManiaController, T> action) {
+        while (true) {
+            GameSession game = use(sessionId);
+            try {
+                return game.ask(action);
+            } catch (IllegalStateException e) {
+                // dropped between being found and being used, look it up again
+            }
+        }
+    }
+
+    /**
+     * send a command to the game of a session, starting a new game for a new session.
+     * Commands sent back to back are applied as one batch, see GameSession.
+     * @param sessionId
+     * @param action
+     * @return the response after the command, or the exception it throws
+     * @throws IllegalStateException if the registry is full and every session is busy
+     */
+    public CompletableFuture<DungeonResponse> send(String sessionId, Action action) {
+        return send(sessionId, action, (controller, response) -> response);
+    }
+
+    /**
+     * send a command to the game of a session, answering with something made from the response
+     * @param sessionId
+     * @param action
+     * @param reply turns the response after the command into the answer
+     * @return the answer, or the exception the command throws
+     * @throws IllegalStateException if the registry is full and every session is busy
+     */
+    public <T> CompletableFuture<T> send(String sessionId, Action action,
+            BiFunction<DungeonManiaController, DungeonResponse, T> reply) {
+        while (true) {
+            GameSession game = use(sessionId);
+            try {
+                return game.send(action, reply);
+            } catch (IllegalStateException e) {
+                // dropped between being found and being used, look it up again
+            }
+        }
+    }
+
+    /**
+     * send a command to the game of a session, answering straight from the game
+     * without a response being built for it
+     * @param sessionId
+     * @param action
+     * @param reply run once the command has been applied
+     * @return the answer, or the exception the command throws
+     * @throws IllegalStateException if the registry is full and every session is busy
+     */
+    public <T> CompletableFuture<T> sendThen(String sessionId, Action action, Function<DungeonManiaController, T> reply) {
+        while (true) {
+            GameSession game = use(sessionId);
+            try {
+                return game.sendThen(action, reply);
+            } catch (IllegalStateException e) {
+                // dropped between being found and being used, look it up again
+            }
+        }
+    }
+
+    /**
+     * run an action on the game of a session and wait for it
+     * @param sessionId
+     * @param action
+     * @return what the action returned
+     * @throws IllegalStateException if the registry is full and every session is busy
+     */
+    public <T> T call(String sessionId, Function<DungeonManiaController, T> action) {
+        try {
+            return submit(sessionId, action).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * drop every session that has not been used within the idle timeout
+     * @return number of sessions dropped
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int count = 0;
+        for (Map.Entry<String, Session> entry: sessions.entrySet()) {
+            if (now - entry.getValue().lastUsed > idleTimeoutMillis && evict(entry.getKey(), entry.getValue())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(sessions.size(), peakSessions.get(), maxSessions, createdSessions.get(),
+                evictedSessions.get(), rejectedSessions.get());
+    }
+
+    /**
+     * stop sweeping and drop every session, closing its game once the
+     * requests it already has are done
+     */
+    @Override
+    public synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        for (Map.Entry<String, Session> entry: sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (!sessions.remove(entry.getKey(), session)) {
+                continue;
+            }
+            if (session.game.tryClose()) {
+                session.controller.close();
+            } else {
+                session.game.ask(controller -> {
+                    controller.close();
+                    return null;
+                });
+            }
+        }
+    }
+
+    private GameSession use(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            session = create(sessionId);
+        }
+        session.lastUsed = clock.getAsLong();
+        return session.game;
+    }
+
+    private Session create(String sessionId) {
+        if (sessions.size() >= maxSessions) {
+            makeRoom();
+        }
+        Session created = new Session(clock.getAsLong());
+        Session session = sessions.putIfAbsent(sessionId, created);
+        if (session != null) {
+            return session;
+        }
+        createdSessions.incrementAndGet();
+        peakSessions.accumulateAndGet(sessions.size(), Math::max);
+        return created;
+    }
+
+    private void makeRoom() {
+        if (evictIdle() > 0) {
+            return;
+        }
+        String oldestId = null;
+        Session oldest = null;
+        for (Map.Entry<String, Session> entry: sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.game.isIdle() && (oldest == null || session.lastUsed < oldest.lastUsed)) {
+                oldestId = entry.getKey();
+                oldest = session;
+            }
+        }
+        if (oldest == null || !evict(oldestId, oldest)) {
+            rejectedSessions.incrementAndGet();
+            throw new IllegalStateException("Too many sessions");
+        }
+    }
+
+    // only sessions with no requests queued or running are dropped
+    private boolean evict(String sessionId, Session session) {
+        if (!session.game.tryClose() || !sessions.remove(sessionId, session)) {
+            return false;
+        }
+        // the closed session no longer touches its game
+        session.controller.close();
+        evictedSessions.incrementAndGet();
+        return true;
+    }
+
+    private class Session {
+        private final DungeonManiaController controller = new DungeonManiaController();
+        private final GameSession game = new GameSession(controller, requests);
+        private volatile long lastUsed;
+
+        Session(long now) {
+            this.lastUsed = now;
+        }
+    }
+
+    /*
+     * A snapshot of the registry, reported by the sessions metrics endpoint
+     */
+    public static final class Metrics {
+        private final int activeSessions;
+        private final int peakSessions;
+        private final int maxSessions;
+        private final long createdSessions;
+        private final long evictedSessions;
+        private final long rejectedSessions;
+
+        Metrics(int activeSessions, int peakSessions, int maxSessions, long createdSessions,
+                long evictedSessions, long rejectedSessions) {
+            this.activeSessions = activeSessions;
+            this.peakSessions = peakSessions;
+            this.maxSessions = maxSessions;
+            this.createdSessions = createdSessions;
+            this.evictedSessions = evictedSessions;
+            this.rejectedSessions = rejectedSessions;
+        }
+
+        public int getActiveSessions() {
+            return activeSessions;
+        }
+
+        public int getPeakSessions() {
+            return peakSessions;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public long getCreatedSessions() {
+            return createdSessions;
+        }
+
+        public long getEvictedSessions() {
+            return evictedSessions;
+        }
+
+        public long getRejectedSessions() {
+            return rejectedSessions;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package dungeonmania;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.util.LongMap;
+import dungeonmania.util.PackedPosition;
+import dungeonmania.util.Position;
+
+/*
+ * Cell-keyed index over the entities of a dungeon so that "what is at this
+ * position" queries do not have to scan every entity.
+ * Entities in a cell are kept in the order they were added to the index,
+ * which matches the iteration order of the list the index mirrors.
+ * Cells are keyed by their packed position, so a lookup makes no garbage.
+ */
+public class SpatialIndex<T extends Entity> {
+
+    private LongMap<List<T>> cells = new LongMap<>();
+    private Map<T, Long> order = new HashMap<>();
+    private long nextOrder = 0;
+
+    public void add(T entity) {
+        if (entity == null || order.containsKey(entity)) {
+            return;
+        }
+        order.put(entity, nextOrder++);
+        insert(entity, entity.getPosition());
+    }
+
+    public void remove(T entity) {
+        if (entity == null || order.remove(entity) == null) {
+            return;
+        }
+        removeFromCell(entity, entity.getPosition());
+    }
+
+    /**
+     * move an indexed entity from one cell to another,
+     * entities that are not in this index are ignored
+     * @param entity
+     * @param from
+     * @param to
+     */
+    @SuppressWarnings("unchecked")
+    public void move(Entity entity, Position from, Position to) {
+        if (!order.containsKey(entity)) {
+            return;
+        }
+        removeFromCell(entity, from);
+        insert((T) entity, to);
+    }
+
+    public boolean contains(Entity entity) {
+        return order.containsKey(entity);
+    }
+
+    /**
+     * get the entities at a given position
+     * @param position
+     * @return read only view of the entities at position, in insertion order
+     */
+    public List<T> getAt(Position position) {
+        return getAt(position.pack());
+    }
+
+    /**
+     * @param packed position packed with PackedPosition, on any layer
+     * @return read only view of the entities at that position, in insertion order
+     */
+    public List<T> getAt(long packed) {
+        List<T> cell = cells.get(PackedPosition.cell(packed));
+        if (cell == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(cell);
+    }
+
+    public T getFirstAt(Position position) {
+        return getFirstAt(position.pack());
+    }
+
+    public T getFirstAt(long packed) {
+        List<T> cell = cells.get(PackedPosition.cell(packed));
+        if (cell == null) {
+            return null;
+        }
+        return cell.get(0);
+    }
+
+    public void clear() {
+        cells.clear();
+        order.clear();
+        nextOrder = 0;
+    }
+
+    private void insert(T entity, Position position) {
+        long key = PackedPosition.cell(position.pack());
+        List<T> cell = cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>(2);
+            cells.put(key, cell);
+        }
+        // keep the cell sorted by insertion order
+        long rank = order.get(entity);
+        int i = cell.size();
+        while (i > 0 && order.get(cell.get(i - 1)) > rank) {
+            i--;
+        }
+        cell.add(i, entity);
+    }
+
+    private void removeFromCell(Entity entity, Position position) {
+        long key = PackedPosition.cell(position.pack());
+        List<T> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        cell.remove(entity);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+}
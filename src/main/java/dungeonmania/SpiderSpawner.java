@@ -1,13 +1,15 @@
 package dungeonmania;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.Random;
 
 import dungeonmania.enemy.Spider;
 import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
 import java.io.Serializable;
 
-public class SpiderSpawner implements Serializable {
+public class SpiderSpawner implements Serializable, Saveable {
+    private static final long serialVersionUID = 4764267192111496307L;
     
     private int spawnRate;
     private int spawnCountdown;
@@ -23,21 +25,31 @@ public class SpiderSpawner implements Serializable {
             return;
         }
         spawnCountdown = spawnRate - 1;
-        Spider spider = new Spider(spiderSpawnPos(dungeon.getDungeonLimits()), dungeon.getSpiderHealth(), dungeon.getSpiderAttack(), "spider");
+        Spider spider = new Spider(spiderSpawnPos(dungeon.getDungeonLimits(), dungeon.getRandom()), dungeon.getSpiderHealth(), dungeon.getSpiderAttack(), "spider");
         dungeon.addEnemy(spider);
         dungeon.getPlayer().subscribe(spider);
     }
     
-    public Position spiderSpawnPos(List <Integer> dungeonSpawnLimits) {
-        Random randomX = new Random();
-        int spiderX = Math.abs(randomX.nextInt(dungeonSpawnLimits.get(0)));
+    public Position spiderSpawnPos(List <Integer> dungeonSpawnLimits, SeededRandom random) {
+        int spiderX = Math.abs(random.nextInt(dungeonSpawnLimits.get(0)));
 
-        Random randomY = new Random();
-        int spiderY = Math.abs(randomY.nextInt(dungeonSpawnLimits.get(1)));
+        int spiderY = Math.abs(random.nextInt(dungeonSpawnLimits.get(1)));
         return new Position(spiderX, spiderY);
     }
 
     public int getSpiderSpawnRate() {
         return this.spawnRate;
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeInt(spawnRate);
+        out.writeInt(spawnCountdown);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        spawnRate = in.readInt();
+        spawnCountdown = in.readInt();
+    }
 }
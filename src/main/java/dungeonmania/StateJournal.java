@@ -0,0 +1,249 @@
+package dungeonmania;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dungeonmania.battles.Battle;
+import dungeonmania.enemy.Enemy;
+import dungeonmania.entities.Entity;
+import dungeonmania.items.ItemEntity;
+
+/*
+ * Rewind history kept as periodic keyframes plus per tick deltas.
+ * A keyframe holds a copy of everything in the dungeon. A delta only holds the
+ * entities that appeared or whose state version changed that tick, and the new
+ * ordering of a list when something was added to or removed from it.
+ * Restoring a tick replays the deltas on top of the nearest earlier keyframe.
+ * Only the most recent frames are kept in memory, older ones are archived by
+ * the history buffer and read back when a rewind reaches them.
+ */
+public class StateJournal {
+    private static final int KEYFRAME_INTERVAL = 20;
+
+    private HistoryBuffer<Frame> frames;
+    private int frameCount = 0;
+
+    // every live object gets a slot number that deltas refer to it by
+    private Map<Object, Integer> slots = new IdentityHashMap<>();
+    // the copy each slot was last recorded as
+    private Map<Integer, Entity> lastCopies = new HashMap<>();
+    private int nextSlot = 0;
+
+    private int[] lastEntities = new int[0];
+    private int[] lastEnemies = new int[0];
+    private int[] lastItems = new int[0];
+    private int lastBattleCount = 0;
+    private Battle lastBattle = null;
+    private List<String> lastBuildables = new ArrayList<>();
+    private boolean forceKeyframe = true;
+
+    public StateJournal(int capacity) {
+        this.frames = new HistoryBuffer<>(capacity);
+    }
+
+    public int size() {
+        return frameCount;
+    }
+
+    /**
+     * delete the archived frames, the journal is not used again afterwards
+     */
+    public void close() {
+        frames.close();
+    }
+
+    /**
+     * the live objects no longer follow on from the last recorded tick,
+     * e.g. after a rewind, so the next record has to be a keyframe
+     */
+    public void invalidate() {
+        forceKeyframe = true;
+    }
+
+    public void record(List<Entity> entities, List<Enemy> enemies, List<ItemEntity> items,
+                       List<Battle> battles, List<String> buildables) {
+        boolean keyframe = forceKeyframe || frameCount % KEYFRAME_INTERVAL == 0 || !battlesAppended(battles);
+        Frame frame = new Frame(keyframe);
+
+        int[] entityOrder = track(entities, frame, keyframe);
+        int[] enemyOrder = track(enemies, frame, keyframe);
+        int[] itemOrder = track(items, frame, keyframe);
+        boolean membershipChanged = false;
+        if (keyframe || !Arrays.equals(entityOrder, lastEntities)) {
+            frame.entities = entityOrder;
+            membershipChanged = true;
+        }
+        if (keyframe || !Arrays.equals(enemyOrder, lastEnemies)) {
+            frame.enemies = enemyOrder;
+            membershipChanged = true;
+        }
+        if (keyframe || !Arrays.equals(itemOrder, lastItems)) {
+            frame.items = itemOrder;
+            membershipChanged = true;
+        }
+        lastEntities = entityOrder;
+        lastEnemies = enemyOrder;
+        lastItems = itemOrder;
+        if (membershipChanged) {
+            forgetRemoved();
+        }
+
+        for (int i = keyframe ? 0 : lastBattleCount; i < battles.size(); i++) {
+            frame.battles.add(copy(battles.get(i)));
+        }
+        lastBattleCount = battles.size();
+        lastBattle = battles.isEmpty() ? null : battles.get(battles.size() - 1);
+
+        if (keyframe || !buildables.equals(lastBuildables)) {
+            frame.buildables = new ArrayList<>(buildables);
+            lastBuildables = new ArrayList<>(buildables);
+        }
+
+        frames.put(frameCount++, frame);
+        forceKeyframe = false;
+    }
+
+    /**
+     * rebuild the state recorded at a given index with fresh copies, so that
+     * playing on from the restored state does not change the history
+     * @param index
+     * @return game state with "entities", "items", "buildables", "battles" and "enemies"
+     */
+    public HashMap<String, List<Object>> restore(int index) {
+        if (index < 0 || index >= frameCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int start = index;
+        while (!frames.get(start).keyframe) {
+            start--;
+        }
+
+        Map<Integer, Entity> objects = new HashMap<>();
+        int[] entityOrder = null;
+        int[] enemyOrder = null;
+        int[] itemOrder = null;
+        List<Battle> battles = new ArrayList<>();
+        List<String> buildables = null;
+        for (int i = start; i <= index; i++) {
+            Frame frame = frames.get(i);
+            objects.putAll(frame.records);
+            if (frame.entities != null) {
+                entityOrder = frame.entities;
+            }
+            if (frame.enemies != null) {
+                enemyOrder = frame.enemies;
+            }
+            if (frame.items != null) {
+                itemOrder = frame.items;
+            }
+            battles.addAll(frame.battles);
+            if (frame.buildables != null) {
+                buildables = frame.buildables;
+            }
+        }
+
+        HashMap<String, List<Object>> gameState = new HashMap<>();
+        gameState.put("entities", copyAll(entityOrder, objects));
+        gameState.put("enemies", copyAll(enemyOrder, objects));
+        gameState.put("items", copyAll(itemOrder, objects));
+        List<Object> battleCopies = new ArrayList<>();
+        for (Battle battle: battles) {
+            battleCopies.add(copy(battle));
+        }
+        gameState.put("battles", battleCopies);
+        gameState.put("buildables", new ArrayList<>(buildables));
+        return gameState;
+    }
+
+    private int[] track(List<? extends Entity> list, Frame frame, boolean keyframe) {
+        int[] order = new int[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            Entity entity = list.get(i);
+            Integer slot = slots.get(entity);
+            if (slot == null) {
+                slot = nextSlot++;
+                slots.put(entity, slot);
+            }
+            order[i] = slot;
+
+            // a copy keeps the version of the entity it was made from
+            Entity last = lastCopies.get(slot);
+            if (last == null || keyframe || entity.getStateVersion() != last.getStateVersion()) {
+                Entity copy = copy(entity);
+                lastCopies.put(slot, copy);
+                frame.records.put(slot, copy);
+            }
+        }
+        return order;
+    }
+
+    private void forgetRemoved() {
+        Set<Integer> live = new HashSet<>();
+        for (int[] order: List.of(lastEntities, lastEnemies, lastItems)) {
+            for (int slot: order) {
+                live.add(slot);
+            }
+        }
+        slots.values().removeIf(slot -> !live.contains(slot));
+        lastCopies.keySet().removeIf(slot -> !live.contains(slot));
+    }
+
+    private boolean battlesAppended(List<Battle> battles) {
+        // battles are only ever appended, unless the whole list was replaced
+        if (battles.size() < lastBattleCount) {
+            return false;
+        }
+        return lastBattleCount == 0 || battles.get(lastBattleCount - 1) == lastBattle;
+    }
+
+    private static List<Object> copyAll(int[] order, Map<Integer, Entity> objects) {
+        List<Object> copies = new ArrayList<>();
+        for (int slot: order) {
+            copies.add(copy(objects.get(slot)));
+        }
+        return copies;
+    }
+
+    private static Entity copy(Entity entity) {
+        try {
+            return (Entity) entity.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Battle copy(Battle battle) {
+        try {
+            return (Battle) battle.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // archived by the history buffer
+    private static class Frame implements Serializable {
+        private static final long serialVersionUID = 6253815285413992199L;
+
+        private final boolean keyframe;
+        // copies of entities that appeared or changed, keyed by slot
+        private Map<Integer, Entity> records = new HashMap<>();
+        // slot order of each list, null when unchanged since the last frame
+        private int[] entities;
+        private int[] enemies;
+        private int[] items;
+        // every battle for keyframes, battles added this tick otherwise
+        private List<Battle> battles = new ArrayList<>();
+        private List<String> buildables;
+
+        Frame(boolean keyframe) {
+            this.keyframe = keyframe;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dungeonmania;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import dungeonmania.entities.Entity;
+
+/*
+ * Type-keyed index over the entities of a dungeon so that "every entity of
+ * this type" queries only look at the entities of that type rather than
+ * filtering every entity.
+ * Entities of a type are kept in the order they were added to the index.
+ */
+public class TypeIndex<T extends Entity> {
+
+    private Map<String, LinkedHashSet<T>> buckets = new HashMap<>();
+
+    public void add(T entity) {
+        if (entity == null) {
+            return;
+        }
+        buckets.computeIfAbsent(entity.getType(), k -> new LinkedHashSet<>()).add(entity);
+    }
+
+    public void remove(T entity) {
+        if (entity == null) {
+            return;
+        }
+        removeFromBucket(entity, entity.getType());
+    }
+
+    /**
+     * move an indexed entity from one type to another,
+     * entities that are not in this index are ignored
+     * @param entity
+     * @param from
+     * @param to
+     */
+    @SuppressWarnings("unchecked")
+    public void retype(Entity entity, String from, String to) {
+        if (!removeFromBucket(entity, from)) {
+            return;
+        }
+        buckets.computeIfAbsent(to, k -> new LinkedHashSet<>()).add((T) entity);
+    }
+
+    /**
+     * get the entities of a given type
+     * @param type
+     * @return read only view of the entities of that type, in insertion order
+     */
+    public Collection<T> get(String type) {
+        LinkedHashSet<T> bucket = buckets.get(type);
+        if (bucket == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(bucket);
+    }
+
+    public T getFirst(String type) {
+        LinkedHashSet<T> bucket = buckets.get(type);
+        if (bucket == null) {
+            return null;
+        }
+        return bucket.iterator().next();
+    }
+
+    public int count(String type) {
+        LinkedHashSet<T> bucket = buckets.get(type);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    private boolean removeFromBucket(Entity entity, String type) {
+        LinkedHashSet<T> bucket = buckets.get(type);
+        if (bucket == null || !bucket.remove(entity)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(type);
+        }
+        return true;
+    }
+}
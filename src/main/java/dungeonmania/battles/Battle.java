@@ -1,14 +1,19 @@
 package dungeonmania.battles;
 
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
 import dungeonmania.enemy.Enemy;
 import dungeonmania.entities.Player;
 import dungeonmania.response.models.RoundResponse;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 
-public class Battle implements Serializable, Cloneable {
+public class Battle implements Serializable, Cloneable, Saveable {
+    private static final long serialVersionUID = -4643563824656448782L;
+
     private Enemy enemy;
     private Player player;
     
@@ -17,6 +22,12 @@ public class Battle implements Serializable, Cloneable {
 
     private List<Round> roundsList;
 
+    /**
+     * blank battle, filled in when a save is loaded
+     */
+    public Battle() {
+    }
+
     public Battle(Player player, Enemy enemy) {
         this.initialEnemyHealth = enemy.getHealth();
         this.initialPlayerHealth = player.getHealth();
@@ -62,4 +73,21 @@ public class Battle implements Serializable, Cloneable {
         return roundsList;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(enemy);
+        out.writeObject(player);
+        out.writeDouble(initialPlayerHealth);
+        out.writeDouble(initialEnemyHealth);
+        out.writeObject(roundsList);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        enemy = in.readObject(Enemy.class);
+        player = in.readObject(Player.class);
+        initialPlayerHealth = in.readDouble();
+        initialEnemyHealth = in.readDouble();
+        roundsList = in.readList(Round.class);
+    }
+}
@@ -2,10 +2,24 @@ package dungeonmania.battles;
 
 import dungeonmania.entities.Player;
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
 import dungeonmania.enemy.Enemy;
+import java.io.IOException;
 import java.io.Serializable;
 
-public interface BattleStrategy extends Serializable {
+public interface BattleStrategy extends Serializable, Saveable {
 
     public Battle battleResponse(Player player, Enemy enemy, Battle battle, Dungeon dungeon);
+
+    /*
+     * Strategies hold nothing, so nothing of them is saved but their type
+     */
+    @Override
+    public default void save(SaveCodec.Output out) throws IOException {
+    }
+
+    @Override
+    public default void load(SaveCodec.Input in) throws IOException {
+    }
 }
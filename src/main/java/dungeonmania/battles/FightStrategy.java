@@ -19,6 +19,7 @@ import dungeonmania.weapon.Weapon;
 
 
 public class FightStrategy implements BattleStrategy {
+    private static final long serialVersionUID = -2717516828588690400L;
 
     @Override
     public Battle battleResponse(Player player, Enemy enemy, Battle battle, Dungeon dungeon) {
@@ -86,7 +87,7 @@ public class FightStrategy implements BattleStrategy {
                 h.updateHealth(h.getHealthIncreaseAmount());
                 round.setDeltaEnemyHealth(h.getHealthIncreaseAmount());
                 healed = true;
-            } else if (Math.random() < h.getHealthIncreaseRate()) {
+            } else if (dungeon.getRandom().nextDouble() < h.getHealthIncreaseRate()) {
                 h.updateHealth(h.getHealthIncreaseAmount());
                 healed = true;
                 round.setDeltaEnemyHealth(h.getHealthIncreaseAmount());
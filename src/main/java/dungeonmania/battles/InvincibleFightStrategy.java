@@ -5,6 +5,8 @@ import dungeonmania.Dungeon;
 import dungeonmania.enemy.Enemy;
 
 public class InvincibleFightStrategy implements BattleStrategy{
+    private static final long serialVersionUID = 6467524247501433120L;
+
     /*
      * Applies to Spiders - will fight Players, with player immediately winning
      */
@@ -5,6 +5,8 @@ import dungeonmania.Dungeon;
 import dungeonmania.enemy.Enemy;
 
 public class InvincibleRunStrategy implements BattleStrategy{
+    private static final long serialVersionUID = 3512296501753311197L;
+
     /*
     * Applies to Mercenaries and Zombies - runs away when player is invincible
     */
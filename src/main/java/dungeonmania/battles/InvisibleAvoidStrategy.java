@@ -5,6 +5,8 @@ import dungeonmania.Dungeon;
 import dungeonmania.enemy.Enemy;
 
 public class InvisibleAvoidStrategy implements BattleStrategy{
+    private static final long serialVersionUID = -4505879446601362015L;
+
     @Override
     public Battle battleResponse(Player player, Enemy enemy, Battle battle, Dungeon dungeon) {
         //  player is invisible, do not battle and simply return
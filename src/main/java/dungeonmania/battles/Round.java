@@ -1,14 +1,19 @@
 package dungeonmania.battles;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
 import dungeonmania.items.ItemEntity;
 import dungeonmania.response.models.ItemResponse;
 
 import java.io.Serializable;
 
-public class Round implements Serializable {
+public class Round implements Serializable, Saveable {
+    private static final long serialVersionUID = -3084659288545753189L;
+
     private double deltaPlayerHealth;
     private double deltaEnemyHealth;
     private List<ItemEntity> itemsUsed;
@@ -62,4 +67,19 @@ public class Round implements Serializable {
         return weaponsUsed;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeDouble(deltaPlayerHealth);
+        out.writeDouble(deltaEnemyHealth);
+        out.writeObject(itemsUsed);
+        out.writeObject(weaponsUsed);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        deltaPlayerHealth = in.readDouble();
+        deltaEnemyHealth = in.readDouble();
+        itemsUsed = in.readList(ItemEntity.class);
+        weaponsUsed = in.readList(ItemEntity.class);
+    }
+}
@@ -1,18 +1,27 @@
 package dungeonmania.enemy;
 
+import java.io.IOException;
 import java.util.*;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.battles.Battle;
 import dungeonmania.battles.InvisibleAvoidStrategy;
 import dungeonmania.entities.*;
 import dungeonmania.exceptions.InvalidActionException;
 import dungeonmania.items.ItemEntity;
+import dungeonmania.pathing.Chaser;
+import dungeonmania.pathing.DistanceField;
+import dungeonmania.pathing.PathFinder;
+import dungeonmania.pathing.PathGrid;
 import dungeonmania.util.Direction;
+import dungeonmania.util.PackedPosition;
 import dungeonmania.util.Position;
 import dungeonmania.weapon.Sceptre;
 
-public class Assassin extends Enemy {
+public class Assassin extends Enemy implements Chaser {
+    private static final long serialVersionUID = 7268811809608362503L;
+
     private boolean hostile;
     private int bribeAmount;
     private int bribeRadius;
@@ -53,6 +62,8 @@ public class Assassin extends Enemy {
             hostile = false;
             setInteractable(false);
             prevPlayerPosition = playerPosition;
+            changed();
+            notifySideChanged();
 
             // Store the enemy being controlled by sceptre
             for (ItemEntity i: player.getInventory()) {
@@ -68,14 +79,15 @@ public class Assassin extends Enemy {
         }
 
         // Check if player is within bribe radius
-        List<Position> pos = getPositionsInRadius(bribeRadius);
-        if (pos.contains(playerPosition)) {
+        if (PackedPosition.isWithin(getPosition().pack(), playerPosition.pack(), bribeRadius)) {
             if (goldAmount >= bribeAmount) {
-                if (new Random().nextDouble() >= bribeFailRate) {
+                if (getRandom().nextDouble() >= bribeFailRate) {
                     // Bribe successful
                     hostile = false;
                     setInteractable(false);
                     prevPlayerPosition = playerPosition;
+                    changed();
+                    notifySideChanged();
                 }
 
                 // Decrease gold used by player
@@ -100,22 +112,22 @@ public class Assassin extends Enemy {
         if (!isHostile()) {
             setPosition(prevPlayerPosition);
             prevPlayerPosition = playerPosition;
+            changed();
             return;
         }
 
         Position positionToMove = null;
 
         // Check if within recon radius
-        List<Position> pos = getPositionsInRadius(reconRadius);
-        if (getBattleStrategy() instanceof InvisibleAvoidStrategy && !pos.contains(playerPosition)) {
-            Random randomGen = new Random();
+        boolean inRecon = PackedPosition.isWithin(getPosition().pack(), playerPosition.pack(), reconRadius);
+        if (getBattleStrategy() instanceof InvisibleAvoidStrategy && !inRecon) {
             // Get random direction to move
             List<Direction> moveDirections = Arrays.asList(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
-            int randomNum = randomGen.nextInt(4); // [0,n)
+            int randomNum = dungeon.getRandom().nextInt(4); // [0,n)
             Direction directionToMove = moveDirections.get(randomNum);
             positionToMove = getPosition().translateBy(directionToMove);
         } else {
-            positionToMove = dijkstraSearch(dungeon, entities, getPosition(), playerPosition);
+            positionToMove = shortestPathSearch(dungeon, entities, getPosition(), playerPosition);
         }
 
         if (positionToMove == null) {
@@ -148,25 +160,37 @@ public class Assassin extends Enemy {
                 continue;
             }
 
-            if (entity instanceof Wall ||
-                    entity instanceof Boulder ||
-                    entity instanceof ZombieToastSpawner ||
-                    entity instanceof Portal ||
-                    (entity instanceof Door && !((Door) entity).isOpen())) {
+            if (isBlocking(entity)) {
                 return false;
             }
         }
         return true;
     }
 
+    @Override
+    public boolean isBlocking(Entity entity) {
+        return entity instanceof Wall ||
+                entity instanceof Boulder ||
+                entity instanceof ZombieToastSpawner ||
+                entity instanceof Portal ||
+                (entity instanceof Door && !((Door) entity).isOpen());
+    }
+
     // GETTERS //
     public boolean isHostile() {
         return hostile;
     }
 
+    @Override
+    public boolean isAlly() {
+        return !hostile;
+    }
+
     // SETTERS //
     public void setHostile(boolean hostile) {
         this.hostile = hostile;
+        changed();
+        notifySideChanged();
     }
 
     // HELPERS //
@@ -194,70 +218,14 @@ public class Assassin extends Enemy {
         }
     }
 
-    public Position dijkstraSearch(Dungeon dungeon, List<Entity> entities, Position source, Position playerPos) {
-        // Create grid
-        List<Position> queue = new ArrayList<>();
-        for (int x = -17; x <= 17; ++x) {
-            for (int y = -17; y <= 17; ++y) {
-                queue.add(new Position(x, y));
-            }
-        }
-
-        Map<Position, Double> dist = new HashMap<Position, Double>();
-        Map<Position, Position> prev = new HashMap<Position, Position>();
-
-        for (Position p : queue) {
-            dist.put(p, Double.MAX_VALUE);
-            prev.put(p, null);
+    public Position shortestPathSearch(Dungeon dungeon, List<Entity> entities, Position source, Position playerPos) {
+        DistanceField field = dungeon.getDistanceField(this, entities, playerPos);
+        if (field != null && field.contains(source)) {
+            return field.nextStep(source);
         }
-        dist.put(source, 0.0);
-
-        while (!queue.isEmpty()) {
-            Position u = minDistance(queue, dist);
-            queue.remove(u);
-
-            for (Position v : u.getCardinallyAdjacentPositions()) {
-                if (!dist.containsKey(v)) continue;
-                if (!isMovable(entities, v, dungeon)) continue;
-
-                SwampTile swampTile = isSwampTile(entities, v);
-                if (swampTile != null) {
-                    if (Double.compare(dist.get(u) + swampTile.getMovementFactor(), dist.get(v)) < 0) {
-                        dist.put(v, dist.get(u) + swampTile.getMovementFactor());
-                        prev.put(v, u);
-                    }
-                } else {
-                    if (Double.compare(dist.get(u) + 1, dist.get(v)) < 0) {
-                        dist.put(v, dist.get(u) + 1);
-                        prev.put(v, u);
-                    }
-                }
-            }
-        }
-
-        return nextPositionBacktrack(prev, playerPos, source);
-    }
-
-    private Position minDistance(List<Position> queue, Map<Position, Double> dist) {
-        double min = Double.MAX_VALUE;
-        Position minPos = null;
-
-        for (Map.Entry<Position, Double> e : dist.entrySet()) {
-            if (e.getValue() <= min && queue.contains(e.getKey())) {
-                min = e.getValue();
-                minPos = e.getKey();
-            }
-        }
-
-        return minPos;
-    }
-
-    private Position nextPositionBacktrack(Map<Position, Position> previousPos, Position currPos, Position startingPos) {
-        if (previousPos.get(currPos) == null) {
-            return null;
-        }
-        if (previousPos.get(currPos).equals(startingPos)) return currPos;
-        return nextPositionBacktrack(previousPos, previousPos.get(currPos), startingPos);
+        // not moving as part of a tick, search on our own
+        PathGrid grid = new PathGrid(entities, this::isBlocking, source, playerPos);
+        return PathFinder.nextStep(grid, source, playerPos);
     }
 
     // Radius is either bribe radius or recon radius
@@ -280,5 +248,32 @@ public class Assassin extends Enemy {
 
     public void setBribeAmount(int bribeAmount) {
         this.bribeAmount = bribeAmount;
+        changed();
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeBoolean(hostile);
+        out.writeInt(bribeAmount);
+        out.writeInt(bribeRadius);
+        out.writeDouble(bribeFailRate);
+        out.writeInt(reconRadius);
+        out.writeInt(allyAttack);
+        out.writeInt(allyDefence);
+        out.writeObject(prevPlayerPosition);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        hostile = in.readBoolean();
+        bribeAmount = in.readInt();
+        bribeRadius = in.readInt();
+        bribeFailRate = in.readDouble();
+        reconRadius = in.readInt();
+        allyAttack = in.readInt();
+        allyDefence = in.readInt();
+        prevPlayerPosition = in.readObject(Position.class);
     }
 }
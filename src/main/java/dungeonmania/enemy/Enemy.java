@@ -1,7 +1,10 @@
 package dungeonmania.enemy;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.entities.*;
 import dungeonmania.items.*;
 import dungeonmania.battles.*;
@@ -13,6 +16,8 @@ import dungeonmania.util.Position;
 import dungeonmania.util.Direction;
 
 public abstract class Enemy extends Entity implements Subscriber {
+    private static final long serialVersionUID = -8111800669885690524L;
+
     private double health;
     private double attackDamage;
     private BattleStrategy battleStrategy;
@@ -36,6 +41,24 @@ public abstract class Enemy extends Entity implements Subscriber {
         return battleStrategy.battleResponse(player, this, battle, dungeon);
     }
 
+    /**
+     * fight the players met while walking the entities, once the walk is over,
+     * as a player that loses is removed from the entities being walked
+     * @param opponents players met, null if there were none
+     * @param dungeon
+     */
+    protected void battleAll(List<Player> opponents, Dungeon dungeon) {
+        if (opponents == null) {
+            return;
+        }
+        for (Player player: opponents) {
+            Battle b = battle(player, dungeon);
+            if (b != null) {
+                dungeon.addBattle(b);
+            }
+        }
+    }
+
     // MOVEMENT METHOD //
     public abstract void move(List<Entity> entities, Dungeon dungeon);
 
@@ -46,6 +69,13 @@ public abstract class Enemy extends Entity implements Subscriber {
     }
 
     // GETTERS //
+    /**
+     * @return whether this enemy fights on the player's side
+     */
+    public boolean isAlly() {
+        return false;
+    }
+
     public double getHealth() {
         return health;
     }
@@ -80,14 +110,17 @@ public abstract class Enemy extends Entity implements Subscriber {
 
     public void updateHealth(double deltaHealth) {
         this.health += deltaHealth;
+        changed();
     }
 
     public void setAttackDamage(double attackDamage) {
         this.attackDamage = attackDamage;
+        changed();
     }
 
     public void setBattleStrategy(BattleStrategy battleStrategy) {
         this.battleStrategy = battleStrategy;
+        changed();
     }
 
     public void update(Potion playerPotion) {
@@ -112,6 +145,7 @@ public abstract class Enemy extends Entity implements Subscriber {
 
     public void setSwampTileTick(int swampTileTick) {
         this.swampTileTick = swampTileTick;
+        changed();
     }
 
     public SwampTile isSwampTile(List<Entity> entities,Position positionToMove) {
@@ -124,4 +158,30 @@ public abstract class Enemy extends Entity implements Subscriber {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    protected static List<Player> addOpponent(List<Player> opponents, Player player) {
+        if (opponents == null) {
+            opponents = new ArrayList<>(2);
+        }
+        opponents.add(player);
+        return opponents;
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeDouble(health);
+        out.writeDouble(attackDamage);
+        out.writeObject(battleStrategy);
+        out.writeInt(swampTileTick);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        health = in.readDouble();
+        attackDamage = in.readDouble();
+        battleStrategy = in.readObject(BattleStrategy.class);
+        swampTileTick = in.readInt();
+    }
+}
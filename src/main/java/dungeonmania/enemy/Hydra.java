@@ -1,28 +1,27 @@
 package dungeonmania.enemy;
 
 import dungeonmania.Dungeon;
-import dungeonmania.battles.Battle;
+import dungeonmania.SaveCodec;
 import dungeonmania.battles.InvincibleRunStrategy;
 import dungeonmania.entities.*;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 public class Hydra extends Enemy {
+    private static final long serialVersionUID = -349879249869891445L;
+
     private double healthIncreaseRate;
     private double healthIncreaseAmount;
 
-    private Random randomGen;
-
     // CONSTRUCTORS //
     public Hydra(Position position, double health, double attackDamage, double healthIncreaseRate, double healthIncreaseAmount, String type) {
         super(position, health, attackDamage, type);
         this.healthIncreaseRate = healthIncreaseRate;
         this.healthIncreaseAmount = healthIncreaseAmount;
-        randomGen = new Random();
     }
 
     // MOVEMENT METHODS //
@@ -30,7 +29,7 @@ public class Hydra extends Enemy {
     public void move(List<Entity> entities, Dungeon dungeon) {
         // Get random direction to move
         List<Direction> moveDirections = Arrays.asList(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
-        int randomNum = randomGen.nextInt(4); // [0,n)
+        int randomNum = dungeon.getRandom().nextInt(4); // [0,n)
         Direction directionToMove = moveDirections.get(randomNum);
 
         if (getBattleStrategy() instanceof InvincibleRunStrategy) {
@@ -73,17 +72,14 @@ public class Hydra extends Enemy {
 
     @Override
     public boolean isMovable(List<Entity> entities, Position positionToMove, Dungeon dungeon) {
+        List<Player> opponents = null;
         for (Entity entity : entities) {
             if (!entity.getPosition().equals(positionToMove)) {
                 continue;
             }
 
             if (entity instanceof Player) {
-                Player p = (Player) entity;
-                Battle b = super.battle(p, dungeon);
-                if (b != null) {
-                    dungeon.addBattle(b);
-                }
+                opponents = addOpponent(opponents, (Player) entity);
             }
 
             // Hydras cannot push boulders or move through portals
@@ -92,9 +88,11 @@ public class Hydra extends Enemy {
                 entity instanceof ZombieToastSpawner ||
                 entity instanceof Portal ||
                 (entity instanceof Door && !((Door) entity).isOpen())) {
+                battleAll(opponents, dungeon);
                 return false;
             }
         }
+        battleAll(opponents, dungeon);
         return true;
     }
 
@@ -106,4 +104,17 @@ public class Hydra extends Enemy {
         return healthIncreaseAmount;
     }
 
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeDouble(healthIncreaseRate);
+        out.writeDouble(healthIncreaseAmount);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        healthIncreaseRate = in.readDouble();
+        healthIncreaseAmount = in.readDouble();
+    }
 }
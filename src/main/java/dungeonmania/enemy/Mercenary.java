@@ -1,6 +1,7 @@
 package dungeonmania.enemy;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.battles.Battle;
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.Player;
@@ -9,15 +10,23 @@ import dungeonmania.battles.InvisibleAvoidStrategy;
 import dungeonmania.exceptions.InvalidActionException;
 import dungeonmania.entities.*;
 import dungeonmania.items.ItemEntity;
+import dungeonmania.pathing.Chaser;
+import dungeonmania.pathing.DistanceField;
+import dungeonmania.pathing.PathFinder;
+import dungeonmania.pathing.PathGrid;
 import dungeonmania.util.Direction;
+import dungeonmania.util.PackedPosition;
 import dungeonmania.util.Position;
 import dungeonmania.weapon.Sceptre;
 
+import java.io.IOException;
 import java.util.*;
 
 import static java.lang.Math.abs;
 
-public class Mercenary extends Enemy {
+public class Mercenary extends Enemy implements Chaser {
+    private static final long serialVersionUID = 1532027987730185721L;
+
     private boolean hostile;
     private int bribeAmount;
     private int bribeRadius;
@@ -48,6 +57,7 @@ public class Mercenary extends Enemy {
         if (!isHostile()) {
             setPosition(prevPlayerPosition);
             prevPlayerPosition = playerPosition;
+            changed();
             return;
         }
 
@@ -55,7 +65,7 @@ public class Mercenary extends Enemy {
         if (getBattleStrategy() instanceof InvincibleRunStrategy || getBattleStrategy() instanceof InvisibleAvoidStrategy) {
             positionToMove = getPositionForPotionMovement(playerPosition);
         } else {
-            positionToMove = dijkstraSearch(dungeon, entities, getPosition(), playerPosition);
+            positionToMove = shortestPathSearch(dungeon, entities, getPosition(), playerPosition);
         }
 
         if (positionToMove == null) {
@@ -89,17 +99,22 @@ public class Mercenary extends Enemy {
                 continue;
             }
 
-            if (entity instanceof Wall ||
-                    entity instanceof Boulder ||
-                    entity instanceof ZombieToastSpawner ||
-                    entity instanceof Portal ||
-                    (entity instanceof Door && !((Door) entity).isOpen())) {
+            if (isBlocking(entity)) {
                 return false;
             }
         }
         return true;
     }
 
+    @Override
+    public boolean isBlocking(Entity entity) {
+        return entity instanceof Wall ||
+                entity instanceof Boulder ||
+                entity instanceof ZombieToastSpawner ||
+                entity instanceof Portal ||
+                (entity instanceof Door && !((Door) entity).isOpen());
+    }
+
     // METHODS //
     public void bribe(Player player) throws InvalidActionException {
         Position playerPosition = player.getPosition();
@@ -118,6 +133,8 @@ public class Mercenary extends Enemy {
             hostile = false;
             setInteractable(false);
             prevPlayerPosition = playerPosition;
+            changed();
+            notifySideChanged();
 
             // Store the enemy being controlled by sceptre
             for (ItemEntity i: player.getInventory()) {
@@ -133,13 +150,14 @@ public class Mercenary extends Enemy {
         }
 
         // Check if player is within bribe radius
-        List<Position> pos = getPositionsInRadius();
-        if (pos.contains(playerPosition)) {
+        if (PackedPosition.isWithin(getPosition().pack(), playerPosition.pack(), bribeRadius)) {
             if (goldAmount >= bribeAmount) {
                 // Bribe successful
                 hostile = false;
                 setInteractable(false);
                 prevPlayerPosition = playerPosition;
+                changed();
+                notifySideChanged();
 
                 // Decrease gold used by player
                 decreasePlayerGold(player, bribeAmount);
@@ -156,13 +174,21 @@ public class Mercenary extends Enemy {
         return hostile;
     }
 
+    @Override
+    public boolean isAlly() {
+        return !hostile;
+    }
+
     // SETTERS //
     public void setBribeAmount(int bribeAmount) {
         this.bribeAmount = bribeAmount;
+        changed();
     }
 
     public void setHostile(boolean hostile) {
         this.hostile = hostile;
+        changed();
+        notifySideChanged();
     }
 
     // HELPERS //
@@ -198,10 +224,9 @@ public class Mercenary extends Enemy {
                 directionToMove = directionToMove == Direction.LEFT ? Direction.RIGHT : Direction.LEFT;
             }
         } else if (getBattleStrategy() instanceof InvisibleAvoidStrategy) {
-            Random randomGen = new Random();
             // Get random direction to move
             List<Direction> moveDirections = Arrays.asList(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
-            int randomNum = randomGen.nextInt(4); // [0,n)
+            int randomNum = getRandom().nextInt(4); // [0,n)
             directionToMove = moveDirections.get(randomNum);
         }
         return getPosition().translateBy(directionToMove);
@@ -222,70 +247,14 @@ public class Mercenary extends Enemy {
         }
     }
 
-    public Position dijkstraSearch(Dungeon dungeon, List<Entity> entities, Position source, Position playerPos) {
-        // Create grid
-        List<Position> queue = new ArrayList<>();
-        for (int x = -17; x <= 17; ++x) {
-            for (int y = -17; y <= 17; ++y) {
-                queue.add(new Position(x, y));
-            }
-        }
-
-        Map<Position, Double> dist = new HashMap<Position, Double>();
-        Map<Position, Position> prev = new HashMap<Position, Position>();
-
-        for (Position p : queue) {
-            dist.put(p, Double.MAX_VALUE);
-            prev.put(p, null);
+    public Position shortestPathSearch(Dungeon dungeon, List<Entity> entities, Position source, Position playerPos) {
+        DistanceField field = dungeon.getDistanceField(this, entities, playerPos);
+        if (field != null && field.contains(source)) {
+            return field.nextStep(source);
         }
-        dist.put(source, 0.0);
-
-        while (!queue.isEmpty()) {
-            Position u = minDistance(queue, dist);
-            queue.remove(u);
-
-            for (Position v : u.getCardinallyAdjacentPositions()) {
-                if (!dist.containsKey(v)) continue;
-                if (!isMovable(entities, v, dungeon)) continue;
-
-                SwampTile swampTile = isSwampTile(entities, v);
-                if (swampTile != null) {
-                    if (Double.compare(dist.get(u) + swampTile.getMovementFactor(), dist.get(v)) < 0) {
-                        dist.put(v, dist.get(u) + swampTile.getMovementFactor());
-                        prev.put(v, u);
-                    }
-                } else {
-                    if (Double.compare(dist.get(u) + 1, dist.get(v)) < 0) {
-                        dist.put(v, dist.get(u) + 1);
-                        prev.put(v, u);
-                    }
-                }
-            }
-        }
-
-        return nextPositionBacktrack(prev, playerPos, source);
-    }
-
-    private Position minDistance(List<Position> queue, Map<Position, Double> dist) {
-        double min = Double.MAX_VALUE;
-        Position minPos = null;
-
-        for (Map.Entry<Position, Double> e : dist.entrySet()) {
-            if (e.getValue() <= min && queue.contains(e.getKey())) {
-                min = e.getValue();
-                minPos = e.getKey();
-            }
-        }
-
-        return minPos;
-    }
-
-    private Position nextPositionBacktrack(Map<Position, Position> previousPos, Position currPos, Position startingPos) {
-        if (previousPos.get(currPos) == null) {
-            return null;
-        }
-        if (previousPos.get(currPos).equals(startingPos)) return currPos;
-        return nextPositionBacktrack(previousPos, previousPos.get(currPos), startingPos);
+        // not moving as part of a tick, search on our own
+        PathGrid grid = new PathGrid(entities, this::isBlocking, source, playerPos);
+        return PathFinder.nextStep(grid, source, playerPos);
     }
 
     public List<Position> getPositionsInRadius() {
@@ -304,4 +273,26 @@ public class Mercenary extends Enemy {
         }
         return positions;
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeBoolean(hostile);
+        out.writeInt(bribeAmount);
+        out.writeInt(bribeRadius);
+        out.writeInt(allyAttack);
+        out.writeInt(allyDefence);
+        out.writeObject(prevPlayerPosition);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        hostile = in.readBoolean();
+        bribeAmount = in.readInt();
+        bribeRadius = in.readInt();
+        allyAttack = in.readInt();
+        allyDefence = in.readInt();
+        prevPlayerPosition = in.readObject(Position.class);
+    }
 }
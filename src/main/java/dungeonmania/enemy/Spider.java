@@ -1,15 +1,18 @@
 package dungeonmania.enemy;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Arrays;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.entities.Player;
 import dungeonmania.Dungeon;
-import dungeonmania.battles.Battle;
 import dungeonmania.entities.*;
 import dungeonmania.util.Position;
 
 public class Spider extends Enemy {
+    private static final long serialVersionUID = 5894156828899545669L;
+
     private int currMove; // Current index of move in moveSequence
     private boolean reverse;
     private List<Position> moveSequence;
@@ -43,6 +46,7 @@ public class Spider extends Enemy {
                 currMove %= moveSequence.size();
             }
             positionToMove = moveSequence.get(currMove);
+            changed();
         }
 
         if (getSwampTileTick() > 0) {
@@ -62,27 +66,43 @@ public class Spider extends Enemy {
         } else {
             currMove %= moveSequence.size();
         }
+        changed();
     }
 
     @Override
     public boolean isMovable(List<Entity> entities, Position positionToMove, Dungeon dungeon) {
+        List<Player> opponents = null;
         for (Entity entity : entities) {
             if (!entity.getPosition().equals(positionToMove)) {
                 continue;
             }
 
             if (entity instanceof Player) {
-                Player p = (Player) entity;
-                Battle b = super.battle(p, dungeon);
-                if (b != null) {
-                    dungeon.addBattle(b);
-                }
+                opponents = addOpponent(opponents, (Player) entity);
             }
 
             if (entity instanceof Boulder) {
+                battleAll(opponents, dungeon);
                 return false;
             }
         }
+        battleAll(opponents, dungeon);
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(currMove);
+        out.writeBoolean(reverse);
+        out.writeObject(moveSequence);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        currMove = in.readInt();
+        reverse = in.readBoolean();
+        moveSequence = in.readList(Position.class);
+    }
+}
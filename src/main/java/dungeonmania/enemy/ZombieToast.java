@@ -1,24 +1,21 @@
 package dungeonmania.enemy;
 
-import java.util.Random;
 import java.util.List;
 import java.util.Arrays;
 
 import dungeonmania.battles.InvincibleRunStrategy;
 import dungeonmania.entities.Player;
 import dungeonmania.Dungeon;
-import dungeonmania.battles.Battle;
 import dungeonmania.entities.*;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
 
 public class ZombieToast extends Enemy {
-    private Random randomGen;
+    private static final long serialVersionUID = 8263942009911832612L;
 
     // CONSTRUCTORS //
     public ZombieToast(Position position, double health, double attackDamage, String type) {
         super(position, health, attackDamage, type);
-        randomGen = new Random(); // Create a random number generator
     }
 
     // MOVEMENT METHODS //
@@ -26,7 +23,7 @@ public class ZombieToast extends Enemy {
     public void move(List<Entity> entities, Dungeon dungeon) {
         // Get random direction to move
         List<Direction> moveDirections = Arrays.asList(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
-        int randomNum = randomGen.nextInt(4); // [0,n)
+        int randomNum = dungeon.getRandom().nextInt(4); // [0,n)
         Direction directionToMove = moveDirections.get(randomNum);
 
         if (getBattleStrategy() instanceof InvincibleRunStrategy) {
@@ -69,17 +66,14 @@ public class ZombieToast extends Enemy {
 
     @Override
     public boolean isMovable(List<Entity> entities, Position positionToMove, Dungeon dungeon) {
+        List<Player> opponents = null;
         for (Entity entity : entities) {
             if (!entity.getPosition().equals(positionToMove)) {
                 continue;
             }
 
             if (entity instanceof Player) {
-                Player p = (Player) entity;
-                Battle b = super.battle(p, dungeon);
-                if (b != null) {
-                    dungeon.addBattle(b);
-                }
+                opponents = addOpponent(opponents, (Player) entity);
             }
 
             if (entity instanceof Wall ||
@@ -87,9 +81,11 @@ public class ZombieToast extends Enemy {
                 entity instanceof ZombieToastSpawner ||
                 entity instanceof Portal ||
                 (entity instanceof Door && !((Door) entity).isOpen())) {
+                battleAll(opponents, dungeon);
                 return false;
             }
         }
+        battleAll(opponents, dungeon);
         return true;
     }
 
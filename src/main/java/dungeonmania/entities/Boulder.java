@@ -1,10 +1,13 @@
 package dungeonmania.entities;
 
+import java.util.ArrayList;
+
 import dungeonmania.Dungeon;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
 
 public class Boulder extends Entity {
+    private static final long serialVersionUID = 4908208784704852108L;
 
     public Boulder (Position position, String type) {
         super(position, type);
@@ -16,31 +19,30 @@ public class Boulder extends Entity {
         Position originalPosition = this.getPosition();
         Position newPosition = originalPosition.translateBy(direction);
         
-        for (Entity entity: dungeon.getEntities()) {
-            // if there are other entites next to boulder
-            if (newPosition.equals(entity.getPosition())) {
-                // cannot push a boulder next to wall, another boulder, locked door and portal
-                if (entity instanceof Boulder || entity instanceof Wall || entity instanceof Portal || 
-                    (entity instanceof Door && ! ((Door) entity).isOpen())){
-                    return false;
-                } 
-                // floor switch is triggered when a boulder is pushed onto it
-                if (entity instanceof FloorSwitch) {
-                    ((FloorSwitch) entity).setOn(true, dungeon);
-                    this.setPosition(newPosition);
-                    dungeon.addTriggeredSwitch((FloorSwitch) entity);
-                    if ((dungeon.getSwitchCount() == dungeon.getSwitchList().size()) && goal.equals(":boulders")) {
-                        dungeon.setGoals("");
-                    }
-                    return true;
-                }      
-            } else {
-                // pushing a boulder off the floor switch untriggers
-                if (entity instanceof FloorSwitch && originalPosition.equals(entity.getPosition())) {
-                    ((FloorSwitch) entity).setOn(false, dungeon);
-                    dungeon.removeTriggeredSwitch((FloorSwitch) entity);
-                    continue;
+        // cannot push a boulder next to wall, another boulder, locked door and portal
+        for (Entity entity: dungeon.getEntitiesAt(newPosition)) {
+            if (entity instanceof Boulder || entity instanceof Wall || entity instanceof Portal || 
+                (entity instanceof Door && ! ((Door) entity).isOpen())){
+                return false;
+            }
+        }
+        // pushing a boulder off the floor switch untriggers
+        for (Entity entity: new ArrayList<>(dungeon.getEntitiesAt(originalPosition))) {
+            if (entity instanceof FloorSwitch) {
+                ((FloorSwitch) entity).setOn(false, dungeon);
+                dungeon.removeTriggeredSwitch((FloorSwitch) entity);
+            }
+        }
+        // floor switch is triggered when a boulder is pushed onto it
+        for (Entity entity: new ArrayList<>(dungeon.getEntitiesAt(newPosition))) {
+            if (entity instanceof FloorSwitch) {
+                ((FloorSwitch) entity).setOn(true, dungeon);
+                this.setPosition(newPosition);
+                dungeon.addTriggeredSwitch((FloorSwitch) entity);
+                if ((dungeon.getSwitchCount() == dungeon.getSwitchList().size()) && goal.equals(":boulders")) {
+                    dungeon.setGoals("");
                 }
+                return true;
             }
         }
         this.setPosition(newPosition);
@@ -1,8 +1,12 @@
 package dungeonmania.entities;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Door extends Entity {
+    private static final long serialVersionUID = 8273740709081409008L;
+
     private boolean isOpen;
     private int keyId;
 
@@ -18,10 +22,24 @@ public class Door extends Entity {
 
     public void setOpen(boolean isOpen) {
         this.isOpen = isOpen;
+        changed();
     }
 
     public int getKeyId() {
         return keyId;
     }
 
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeBoolean(isOpen);
+        out.writeInt(keyId);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        isOpen = in.readBoolean();
+        keyId = in.readInt();
+    }
 }
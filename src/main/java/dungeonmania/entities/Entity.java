@@ -1,22 +1,38 @@
 package dungeonmania.entities;
 
+import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
+import dungeonmania.goals.GoalEvent;
+import dungeonmania.response.models.EntityResponse;
+import dungeonmania.util.IdAllocator;
 import dungeonmania.util.Position;
+import dungeonmania.util.SeededRandom;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
 
-public abstract class Entity implements Serializable, Cloneable {
+public abstract class Entity implements Serializable, Cloneable, Saveable {
+    private static final long serialVersionUID = -7821331445304389750L;
+    // hands out state versions, which only ever grow across every entity
+    private static final AtomicLong VERSIONS = new AtomicLong();
 
     private Position position;
+    // given by the dungeon the entity is placed in, see Dungeon.assignId
     private String id;
     private String type;
-    private static int entityCounter = 0;
     private boolean isInteractable = false;
     private double health;
+    // dungeon this entity is placed in, told when the entity moves
+    private transient Dungeon dungeon;
+    // built when first asked for and kept until the entity moves or changes, which most never do
+    private transient EntityResponse response;
+    // version of the last change to any saved field, copies keep the version they were made at
+    private transient long stateVersion;
     
     public Entity(Position position, String type) {
         this.position = position;
-        this.id = String.valueOf(entityCounter);
         this.type = type;
-        entityCounter++;
     }
 
     @Override
@@ -29,15 +45,63 @@ public abstract class Entity implements Serializable, Cloneable {
     }
 
     public void setPosition(Position position) {
+        Position oldPosition = this.position;
         this.position = position;
+        this.response = null;
+        changed();
+        if (dungeon != null && oldPosition != position) {
+            dungeon.entityMoved(this, oldPosition, position);
+        }
+    }
+
+    public void setDungeon(Dungeon dungeon) {
+        this.dungeon = dungeon;
+    }
+
+    /**
+     * tell the goals of the dungeon this entity is in that something they may depend on changed
+     * @param event
+     */
+    protected void notifyGoals(GoalEvent event) {
+        if (dungeon != null) {
+            dungeon.notifyGoals(event);
+        }
+    }
+
+    /**
+     * tell the dungeon this entity is in that it joined or left the player's side
+     */
+    protected void notifySideChanged() {
+        if (dungeon != null) {
+            dungeon.sideChanged(this);
+        }
+    }
+
+    /**
+     * @return random numbers of the dungeon this entity is in, so seeded games replay the same way,
+     *         or unseeded ones if it is not in a dungeon
+     */
+    protected SeededRandom getRandom() {
+        return dungeon != null ? dungeon.getRandom() : new SeededRandom(SeededRandom.newSeed());
     }
 
     public String getId() {
+        if (id == null) {
+            // asked for before being placed in a dungeon
+            id = IdAllocator.global();
+            changed();
+        }
         return id;
     }
 
+    public boolean hasId() {
+        return id != null;
+    }
+
     public void setId(String id) {
         this.id = id;
+        this.response = null;
+        changed();
     }
 
     public String getType() {
@@ -45,7 +109,13 @@ public abstract class Entity implements Serializable, Cloneable {
     }
 
     public void setType(String type) {
+        String oldType = this.type;
         this.type = type;
+        this.response = null;
+        changed();
+        if (dungeon != null && !type.equals(oldType)) {
+            dungeon.entityRetyped(this, oldType, type);
+        }
     }
 
     public boolean isInteractable() {
@@ -58,5 +128,53 @@ public abstract class Entity implements Serializable, Cloneable {
 
     public void setInteractable(boolean isInteractable) {
         this.isInteractable = isInteractable;
+        this.response = null;
+        changed();
+    }
+
+    /**
+     * record that a saved field of the entity changed, every subclass calls this
+     * after changing one of its own
+     */
+    protected void changed() {
+        stateVersion = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * @return a number that grows whenever the saved state of the entity changes,
+     *         so two equal versions of an entity have the same state
+     */
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * @return how the entity is shown to clients, the same object until it moves or changes
+     */
+    public EntityResponse getEntityResponse() {
+        EntityResponse cached = response;
+        if (cached == null) {
+            cached = new EntityResponse(id, type, position, isInteractable);
+            response = cached;
+        }
+        return cached;
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(position);
+        out.writeString(id);
+        out.writeString(type);
+        out.writeBoolean(isInteractable);
+        out.writeDouble(health);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        position = in.readObject(Position.class);
+        id = in.readString();
+        type = in.readString();
+        isInteractable = in.readBoolean();
+        health = in.readDouble();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,16 @@
 package dungeonmania.entities;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.goals.AndGoal;
+import dungeonmania.goals.GoalEvent;
 import dungeonmania.goals.GoalsInterface;
 import dungeonmania.goals.OrGoal;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Exit extends Entity {
+    private static final long serialVersionUID = -3274405923249829081L;
     
     private boolean isOpen;
     public Exit(Position position, String type) {
@@ -20,6 +24,8 @@ public class Exit extends Entity {
     
     public void setOpen(boolean isOpen) {
         this.isOpen = isOpen;
+        changed();
+        notifyGoals(GoalEvent.EXIT_REACHED);
     }
 
     public boolean checkExitStatus(Dungeon dungeon) {
@@ -79,4 +85,15 @@ public class Exit extends Entity {
         return 0;
     }
 
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeBoolean(isOpen);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        isOpen = in.readBoolean();
+    }
 }
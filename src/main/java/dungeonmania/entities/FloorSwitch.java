@@ -1,13 +1,17 @@
 package dungeonmania.entities;
 
+import dungeonmania.SaveCodec;
+import dungeonmania.util.PackedPosition;
 import dungeonmania.util.Position;
 import dungeonmania.items.Bomb;
 import dungeonmania.items.ItemEntity;
-import java.util.List;
 
 import dungeonmania.Dungeon;
+import java.io.IOException;
 
 public class FloorSwitch extends Entity {
+    private static final long serialVersionUID = -5776584932852038060L;
+
     private boolean isOn;
 
     public FloorSwitch(Position position, String type) {
@@ -21,6 +25,7 @@ public class FloorSwitch extends Entity {
     
     public void setOn(boolean isOn, Dungeon dungeon) {
         this.isOn = isOn;
+        changed();
         triggerBomb(dungeon);
     }
 
@@ -29,9 +34,9 @@ public class FloorSwitch extends Entity {
         if (!this.isOn) {
             return;
         }
-        List<Position> positions = this.getPosition().getAdjacentPositions();
-        for (Position position: positions) {
-            ItemEntity item = dungeon.getItemEntity(position);
+        long centre = getPosition().pack();
+        for (int i = 0; i < 8; i++) {
+            ItemEntity item = dungeon.getItemEntity(PackedPosition.adjacent(centre, i));
             if (item== null) {
                 continue;
             }
@@ -43,4 +48,15 @@ public class FloorSwitch extends Entity {
         }
     }
 
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeBoolean(isOn);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        isOn = in.readBoolean();
+    }
 }
@@ -1,21 +1,28 @@
 package dungeonmania.entities;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.battles.Battle;
 import dungeonmania.enemy.Assassin;
 import dungeonmania.enemy.Enemy;
 import dungeonmania.enemy.Mercenary;
 import dungeonmania.enemy.Subscriber;
+import dungeonmania.goals.GoalEvent;
 import dungeonmania.items.*;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
 import dungeonmania.weapon.MidnightArmour;
 import dungeonmania.weapon.Sword;
 import dungeonmania.weapon.Weapon;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Player extends Entity implements Subject {
+    private static final long serialVersionUID = 1409276334192010439L;
 
     private List<ItemEntity> weapons = new ArrayList<>();
     private List <Enemy> opponents = new ArrayList<>();
@@ -26,6 +33,8 @@ public class Player extends Entity implements Subject {
     private List<String> bombsCollected = new ArrayList<>();
     private List <Potion> potionsQueue = new ArrayList<>();
     private Potion activePotion;
+    // copies of the player made for rewinding share the list with the original
+    private List<Subscriber> subscribers = new ArrayList<>();
 
     public Player(Position position, double attackDamage, double playerHealth, String type) {
         super(position, type);
@@ -33,6 +42,71 @@ public class Player extends Entity implements Subject {
         this.playerHealth = playerHealth;
     }
 
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        Player player = (Player) super.clone();
+        // a copy of the player must not share its inventory, or the items in it, with the original.
+        // An item can be in several of the lists, so each one is copied once
+        Map<ItemEntity, ItemEntity> copies = new IdentityHashMap<>();
+        player.weapons = copyItems(weapons, copies);
+        player.opponents = new ArrayList<>(opponents);
+        player.playerInventory = copyItems(playerInventory, copies);
+        player.bombsCollected = new ArrayList<>(bombsCollected);
+        player.potionsQueue = copyItems(potionsQueue, copies);
+        player.activePotion = activePotion == null ? null : copyItem(activePotion, copies);
+        return player;
+    }
+
+    private static <T extends ItemEntity> List<T> copyItems(List<T> items, Map<ItemEntity, ItemEntity> copies)
+            throws CloneNotSupportedException {
+        List<T> copied = new ArrayList<>(items.size());
+        for (T item: items) {
+            copied.add(copyItem(item, copies));
+        }
+        return copied;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends ItemEntity> T copyItem(T item, Map<ItemEntity, ItemEntity> copies)
+            throws CloneNotSupportedException {
+        ItemEntity copy = copies.get(item);
+        if (copy == null) {
+            copy = (ItemEntity) item.clone();
+            copies.put(item, copy);
+        }
+        return (T) copy;
+    }
+
+    /**
+     * @return the latest version of the player or of any item it holds,
+     *         as changing an item changes the player's state too
+     */
+    @Override
+    public long getStateVersion() {
+        long version = super.getStateVersion();
+        for (ItemEntity item: playerInventory) {
+            version = Math.max(version, item.getStateVersion());
+        }
+        for (ItemEntity item: weapons) {
+            version = Math.max(version, item.getStateVersion());
+        }
+        for (Potion potion: potionsQueue) {
+            version = Math.max(version, potion.getStateVersion());
+        }
+        if (activePotion != null) {
+            version = Math.max(version, activePotion.getStateVersion());
+        }
+        return version;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (subscribers == null) {
+            // saved before the player kept its subscribers
+            subscribers = new ArrayList<>();
+        }
+    }
+
     public void move(Dungeon dungeon, Direction direction) {
         Position originalPosition = this.getPosition();
         Position newPosition = originalPosition.translateBy(direction);
@@ -69,6 +143,7 @@ public class Player extends Entity implements Subject {
 
         // reset opponents list
         opponents.clear();
+        changed();
         // tell subscribers no longer in battle
         notifySubscribers();
     }
@@ -76,6 +151,7 @@ public class Player extends Entity implements Subject {
     public void placeBomb(Bomb bomb, Dungeon dungeon) {
         // remove bomb from player items list
         this.playerInventory.remove(bomb);
+        changed();
 
         // set new bomb position
         bomb.setPicked();
@@ -99,6 +175,7 @@ public class Player extends Entity implements Subject {
 
     public void updateHealth(double deltaHealth) {
         this.playerHealth += deltaHealth;
+        changed();
     }
     
     @Override
@@ -111,10 +188,12 @@ public class Player extends Entity implements Subject {
     }
     public void addWeapon(ItemEntity w) {
         weapons.add(w);
+        changed();
     }
 
     public void removeWeapon(ItemEntity  weapon) {
         weapons.remove(weapon);
+        changed();
     }
 
     // player's inventory list
@@ -124,10 +203,14 @@ public class Player extends Entity implements Subject {
 
     public void addItem(ItemEntity item) {
         this.playerInventory.add(item);
+        changed();
+        notifyGoals(GoalEvent.ITEM_COLLECTED);
     }
 
     public void removeItem(ItemEntity item) {
         this.playerInventory.remove(item);
+        changed();
+        notifyGoals(GoalEvent.ITEM_COLLECTED);
     }
 
     public void removeTreasure() {
@@ -184,13 +267,11 @@ public class Player extends Entity implements Subject {
 
     public void collectBomb(Bomb bomb) {
         this.bombsCollected.add(bomb.getId());
+        changed();
     }
 
     public void collectItem(Dungeon dungeon, Position positionToMove) {
-        for (ItemEntity item: dungeon.getItems()) {
-            if (!(item.getPosition().equals(positionToMove))) {
-                continue; // has to be at position
-            }
+        for (ItemEntity item: new ArrayList<>(dungeon.getItemsAt(positionToMove))) {
             // player can only carry one key at a time
             if (item instanceof Key && getCount("key") == 1) {
                 continue;
@@ -205,6 +286,7 @@ public class Player extends Entity implements Subject {
             // add weapons to weapon list
             if (item instanceof Weapon) {
                 weapons.add(item);
+                changed();
             }
 
             if (item.getPosition().equals(positionToMove)) {
@@ -212,6 +294,8 @@ public class Player extends Entity implements Subject {
                     collectBomb((Bomb) item);
                 }
                 playerInventory.add(item);
+                changed();
+                notifyGoals(GoalEvent.ITEM_COLLECTED);
                 // remove from the map once the item is picked up
                 dungeon.removeItem(item);
             }
@@ -225,70 +309,64 @@ public class Player extends Entity implements Subject {
     }
 
     public boolean isMovable(Dungeon dungeon, Position positionToMove, Direction direction) {
-        for (Enemy entity : dungeon.getEnemies()) {
-            if (entity.getPosition().equals(positionToMove)) {
-                opponents.add(entity);
-            }
-        }
+        opponents.addAll(dungeon.getEnemiesAt(positionToMove));
+        changed();
 
-        for (Entity entity : dungeon.getEntities()) {
-            if (entity.getPosition().equals(positionToMove)) {
-                if (entity instanceof Wall || entity instanceof ZombieToastSpawner) {
-                    return false;
-                }
-                if (entity instanceof Exit) {
-                    // check if goals are completed
-                    if (((Exit) entity).checkExitStatus(dungeon)) {
-                        ((Exit) entity).setOpen(true);
-                        dungeon.setGoals("");
-                    }
+        for (Entity entity : new ArrayList<>(dungeon.getEntitiesAt(positionToMove))) {
+            if (entity instanceof Wall || entity instanceof ZombieToastSpawner) {
+                return false;
+            }
+            if (entity instanceof Exit) {
+                // check if goals are completed
+                if (((Exit) entity).checkExitStatus(dungeon)) {
+                    ((Exit) entity).setOpen(true);
+                    dungeon.setGoals("");
                 }
-                if (entity instanceof Door) {
-                    // if the player can open the door in the next tick
-                    if (getCount("sun_stone") > 0) {
-                        entity.setType("door_open");
-                        ((Door) entity).setOpen(true);
-                        return true;
-                    }
-                    Key key = this.getKey(); 
-                    if (key != null && key.getKeyId() == ((Door) entity).getKeyId()) {
-                        ((Door) entity).setOpen(true);
-                        entity.setType("door_open");
-                        // remove the key from inventory list and move to the next position
-                        playerInventory.remove(key);
-                        return true;
-                    }
-                    if (!((Door) entity).isOpen()) {
-                        return false;
-                    }
+            }
+            if (entity instanceof Door) {
+                // if the player can open the door in the next tick
+                if (getCount("sun_stone") > 0) {
+                    entity.setType("door_open");
+                    ((Door) entity).setOpen(true);
+                    return true;
                 }
-                if (entity instanceof Boulder) {
-                    return ((Boulder) entity).pushBoulder(direction, dungeon);
+                Key key = this.getKey(); 
+                if (key != null && key.getKeyId() == ((Door) entity).getKeyId()) {
+                    ((Door) entity).setOpen(true);
+                    entity.setType("door_open");
+                    // remove the key from inventory list and move to the next position
+                    playerInventory.remove(key);
+                    changed();
+                    return true;
                 }
-                if (entity instanceof Portal || entity instanceof TimeTravellingPortal) {
-                    if (this.getType().equals("older_player")) {
-                        dungeon.removeEntity(this);
-                    }
+                if (!((Door) entity).isOpen()) {
+                    return false;
                 }
-                if (entity instanceof Portal) {
-                    Portal corresponding = ((Portal) entity).findPortal(dungeon, direction, (Portal) entity);
-                    return ((Portal) entity).isMovable(dungeon, direction, corresponding.getPosition());
+            }
+            if (entity instanceof Boulder) {
+                return ((Boulder) entity).pushBoulder(direction, dungeon);
+            }
+            if (entity instanceof Portal || entity instanceof TimeTravellingPortal) {
+                if (this.getType().equals("older_player")) {
+                    dungeon.removeEntity(this);
                 }
             }
+            if (entity instanceof Portal) {
+                Portal corresponding = ((Portal) entity).findPortal(dungeon, direction, (Portal) entity);
+                return ((Portal) entity).isMovable(dungeon, direction, corresponding.getPosition());
+            }
         }
         return true;
     }
 
     public Position setTeleportPos(Dungeon dungeon, Direction direction, Position positionToMove) {
         Position newPosition = this.getPosition().translateBy(direction);
-        for (Entity entity: dungeon.getEntities()) {
-            if (entity.getPosition().equals(positionToMove)) {
-                if (entity instanceof Portal) {
-                    Portal corresponding = ((Portal) entity).findPortal(dungeon, direction, (Portal) entity);
-                    Position correspondingPos = corresponding.getPosition();
-                    if (((Portal) entity).isMovable(dungeon, direction, correspondingPos)) {
-                        newPosition = correspondingPos.translateBy(direction);
-                    }
+        for (Entity entity: dungeon.getEntitiesAt(positionToMove)) {
+            if (entity instanceof Portal) {
+                Portal corresponding = ((Portal) entity).findPortal(dungeon, direction, (Portal) entity);
+                Position correspondingPos = corresponding.getPosition();
+                if (((Portal) entity).isMovable(dungeon, direction, correspondingPos)) {
+                    newPosition = correspondingPos.translateBy(direction);
                 }
             }
         }
@@ -296,11 +374,9 @@ public class Player extends Entity implements Subject {
     }
 
     public Boolean isTimeTravellingPortal(Dungeon dungeon) {
-        for (Entity entity: dungeon.getEntities()) {
-            if (entity.getPosition().equals(this.getPosition())) {
-                if (entity instanceof TimeTravellingPortal) {
-                    return true;
-                }
+        for (Entity entity: dungeon.getEntitiesAt(this.getPosition())) {
+            if (entity instanceof TimeTravellingPortal) {
+                return true;
             }
         }
         return false;
@@ -312,6 +388,8 @@ public class Player extends Entity implements Subject {
         for (ItemEntity item: inventory) {
             if (item.getType().equals(type)) {
                 getInventory().remove(item);
+                changed();
+                notifyGoals(GoalEvent.ITEM_COLLECTED);
                 return true;
             }
         }
@@ -386,6 +464,7 @@ public class Player extends Entity implements Subject {
 
     public void addPotionToQueue(Potion potion) {
         this.potionsQueue.add(potion);
+        changed();
     }
 
     public Potion getActivePotion() {
@@ -394,6 +473,7 @@ public class Player extends Entity implements Subject {
 
     public void setActivePotion(Potion potion) {
         this.activePotion = potion;
+        changed();
     }
 
     public boolean consumePotion(Potion potion) {
@@ -404,6 +484,7 @@ public class Player extends Entity implements Subject {
         // add to potions queue
         addPotionToQueue(potion);
         this.playerInventory.remove(potion);
+        changed();
         if (getPotionQueue().size() == 1) {
             // only potion in queue
             setActivePotion(potion);
@@ -420,6 +501,7 @@ public class Player extends Entity implements Subject {
         // remove potion from queue if duration has worn off
         if (potionsQueue.get(0).getDuration() == 0) {
             potionsQueue.remove(potionsQueue.get(0));
+            changed();
             if (potionsQueue.size() > 0) {
                 // if other effects queued up, set active to first in queue
                 setActivePotion(potionsQueue.get(0));
@@ -450,6 +532,7 @@ public class Player extends Entity implements Subject {
             return; 
         }
         subscribers.add(subscriber);
+        changed();
         // notify of current state when subscribers subscribe
         subscriber.update(getActivePotion());
     }
@@ -457,6 +540,7 @@ public class Player extends Entity implements Subject {
     @Override
     public void unsubscribe(Subscriber subscriber) {
         subscribers.remove(subscriber);
+        changed();
     }
 
     @Override
@@ -466,4 +550,32 @@ public class Player extends Entity implements Subject {
             subscriber.update(getActivePotion());
         }
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeObject(weapons);
+        out.writeObject(opponents);
+        out.writeDouble(attackDamage);
+        out.writeDouble(playerHealth);
+        out.writeObject(playerInventory);
+        out.writeObject(bombsCollected);
+        out.writeObject(potionsQueue);
+        out.writeObject(activePotion);
+        out.writeObject(subscribers);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        weapons = in.readList(ItemEntity.class);
+        opponents = in.readList(Enemy.class);
+        attackDamage = in.readDouble();
+        playerHealth = in.readDouble();
+        playerInventory = in.readList(ItemEntity.class);
+        bombsCollected = in.readList(String.class);
+        potionsQueue = in.readList(Potion.class);
+        activePotion = in.readObject(Potion.class);
+        subscribers = in.readList(Subscriber.class);
+    }
 }
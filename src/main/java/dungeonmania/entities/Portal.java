@@ -1,10 +1,14 @@
 package dungeonmania.entities;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Portal extends Entity {
+    private static final long serialVersionUID = 7191059339976514701L;
+
     private String colour;
 
     // CONSTRUCTOR //
@@ -19,7 +23,7 @@ public class Portal extends Entity {
     }
 
     public Portal findPortal(Dungeon dungeon, Direction direction, Portal startingPortal) {
-        for (Entity entity: dungeon.getEntities()) {
+        for (Entity entity: dungeon.getEntitiesOfType(startingPortal.getType())) {
             if (entity instanceof Portal) {
                 if (entity.equals(startingPortal)) {
                     continue;
@@ -39,13 +43,11 @@ public class Portal extends Entity {
 
     public Portal checkTeleportation(Dungeon dungeon, Direction direction, Position portalPos) {
         Position newPosition = portalPos.translateBy(direction);
-        for (Entity entity: dungeon.getEntities()) {
-            if (entity.getPosition().equals(newPosition)) {
-                // check if the portal is surrounded by other portals
-                if (isMovable(dungeon, direction, portalPos)) {
-                    if (entity instanceof Portal) {
-                        return (Portal) entity;
-                    }
+        for (Entity entity: dungeon.getEntitiesAt(newPosition)) {
+            // check if the portal is surrounded by other portals
+            if (isMovable(dungeon, direction, portalPos)) {
+                if (entity instanceof Portal) {
+                    return (Portal) entity;
                 }
             }
         }
@@ -54,16 +56,25 @@ public class Portal extends Entity {
 
     public boolean isMovable(Dungeon dungeon, Direction direction, Position portalPos) {
         Position newPosition = portalPos.translateBy(direction);
-        for (Entity entity: dungeon.getEntities()) {
-            if (entity.getPosition().equals(newPosition)) {
-                // if the player teleports and end up on wall, locked door or boulder
-                if (entity instanceof Wall || entity instanceof Boulder || 
-                    (entity instanceof Door && ! ((Door) entity).isOpen())) {
-                    return false;
-                }
+        for (Entity entity: dungeon.getEntitiesAt(newPosition)) {
+            // if the player teleports and end up on wall, locked door or boulder
+            if (entity instanceof Wall || entity instanceof Boulder || 
+                (entity instanceof Door && ! ((Door) entity).isOpen())) {
+                return false;
             }
         }
         return true;
     }
 
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeString(colour);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        colour = in.readString();
+    }
 }
@@ -1,8 +1,12 @@
 package dungeonmania.entities;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class SwampTile extends Entity {
+    private static final long serialVersionUID = 3389576786109517201L;
+
     private int movementFactor;
 
     public SwampTile(Position position, int movementFactor, String type) {
@@ -16,5 +20,18 @@ public class SwampTile extends Entity {
 
     public void setMovementFactor(int movementFactor) {
         this.movementFactor = movementFactor;
+        changed();
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(movementFactor);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        movementFactor = in.readInt();
     }
 }
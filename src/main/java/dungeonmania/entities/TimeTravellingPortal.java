@@ -2,6 +2,8 @@ package dungeonmania.entities;
 import dungeonmania.util.Position;
 
 public class TimeTravellingPortal extends Entity {
+    private static final long serialVersionUID = -7435202933656604376L;
+
     public TimeTravellingPortal(Position position, String type) {
         super(position, type);
     }
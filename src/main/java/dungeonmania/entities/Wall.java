@@ -3,6 +3,8 @@ package dungeonmania.entities;
 import dungeonmania.util.Position;
 
 public class Wall extends Entity{
+    private static final long serialVersionUID = 3998244953987629154L;
+
     public Wall(Position position, String type) {
         super(position, type);
     }
@@ -12,6 +12,8 @@ import dungeonmania.util.Position;
 import dungeonmania.weapon.Sword;
 
 public class ZombieToastSpawner extends Entity{
+    private static final long serialVersionUID = -5225784886976249228L;
+
     public ZombieToastSpawner(Position position, String type) {
         super(position, type);
         setInteractable(true);
@@ -42,14 +44,7 @@ public class ZombieToastSpawner extends Entity{
      * @return entities at pos
      */
     public List <Entity> getEntitiesAtPos(Position pos, Dungeon dungeon) {
-        List <Entity> entities = dungeon.getEntities();
-        List <Entity> entitiesAtPos =  new ArrayList<>();
-        for (Entity entity: entities) {
-            if (entity.getPosition().equals(pos)) {
-                entitiesAtPos.add(entity);
-            }
-        }
-        return entitiesAtPos;
+        return dungeon.getEntitiesAt(pos);
     }
 
     /**
@@ -1,8 +1,11 @@
 package dungeonmania.goals;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
+import java.io.IOException;
 
-public class BoulderGoal implements GoalsInterface{
+public class BoulderGoal extends LeafGoal {
+    private static final long serialVersionUID = 1944816942732564270L;
 
     private Dungeon dungeon;
     private final String type = ":boulders";
@@ -12,7 +15,7 @@ public class BoulderGoal implements GoalsInterface{
     }
     
     @Override
-    public boolean isFinished(Dungeon dungeon) {
+    protected boolean evaluate(Dungeon dungeon) {
         // all the switches must be triggered
         if ((dungeon.getSwitchCount() == dungeon.getSwitchList().size())) {
             return true;
@@ -20,9 +23,23 @@ public class BoulderGoal implements GoalsInterface{
         return false;
     }
 
+    @Override
+    protected GoalEvent dependsOn() {
+        return GoalEvent.SWITCH_TOGGLED;
+    }
+
     @Override
     public String getType() {
         return type; 
     }
-    
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(dungeon);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        dungeon = in.readObject(Dungeon.class);
+    }
 }
@@ -1,8 +1,11 @@
 package dungeonmania.goals;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
+import java.io.IOException;
 
-public class EnemyGoal implements GoalsInterface{
+public class EnemyGoal extends LeafGoal {
+    private static final long serialVersionUID = -2331353522950647815L;
 
     private Dungeon dungeon;
     private final String type = ":enemies";
@@ -12,7 +15,7 @@ public class EnemyGoal implements GoalsInterface{
     }
 
     @Override
-    public boolean isFinished(Dungeon dungeon) {
+    protected boolean evaluate(Dungeon dungeon) {
         // enemy will be remove from the list
         if (dungeon.getEnemyGoals() <= dungeon.getEnemiesKill()) {
             return true;
@@ -20,9 +23,23 @@ public class EnemyGoal implements GoalsInterface{
         return false;
     }
 
+    @Override
+    protected GoalEvent dependsOn() {
+        return GoalEvent.ENEMY_KILLED;
+    }
+
     @Override
     public String getType() {
         return type;
     }
-    
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(dungeon);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        dungeon = in.readObject(Dungeon.class);
+    }
 }
@@ -1,10 +1,13 @@
 package dungeonmania.goals;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.Exit;
+import java.io.IOException;
 
-public class ExitGoal implements GoalsInterface{
+public class ExitGoal extends LeafGoal {
+    private static final long serialVersionUID = -4053085589030694742L;
 
     private Dungeon dungeon;
     private final String type = ":exit";
@@ -14,8 +17,8 @@ public class ExitGoal implements GoalsInterface{
     }
 
     @Override
-    public boolean isFinished(Dungeon dungeon) {
-        for (Entity entity: dungeon.getEntities()) {
+    protected boolean evaluate(Dungeon dungeon) {
+        for (Entity entity: dungeon.getEntitiesOfType("exit")) {
             if (entity instanceof Exit && (((Exit) entity).isOpen())) {    
                 return true;
             }
@@ -23,9 +26,23 @@ public class ExitGoal implements GoalsInterface{
         return false;
     }
 
+    @Override
+    protected GoalEvent dependsOn() {
+        return GoalEvent.EXIT_REACHED;
+    }
+
     @Override
     public String getType() {
         return type;
     }
-    
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(dungeon);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        dungeon = in.readObject(Dungeon.class);
+    }
 }
@@ -0,0 +1,18 @@
+package dungeonmania.goals;
+
+/*
+ * Changes to a game that can finish or unfinish a goal. Goals remember
+ * whether they are finished and only look at the game again after an event
+ * they depend on, so checking the goals after a tick where nothing relevant
+ * happened costs nothing.
+ */
+public enum GoalEvent {
+    // the player's inventory changed, or there is a new player
+    ITEM_COLLECTED,
+    // a switch was pressed or released, added or removed
+    SWITCH_TOGGLED,
+    // an enemy was killed, or the number to kill changed
+    ENEMY_KILLED,
+    // an exit was reached, added or removed
+    EXIT_REACHED
+}
@@ -1,10 +1,11 @@
 package dungeonmania.goals;
 
 import dungeonmania.Dungeon;
+import dungeonmania.Saveable;
 
 import java.io.Serializable;
 
-public interface GoalsInterface extends Serializable {
+public interface GoalsInterface extends Serializable, Saveable {
     /*
      * Check if each single goal is finished
      */
@@ -14,4 +15,12 @@ public interface GoalsInterface extends Serializable {
      * Return the type of undone goals
      */
     public String getType();
+
+    /*
+     * Forget anything worked out that the event may have changed
+     * Return true if this goal or one of its subgoals depends on the event
+     */
+    public default boolean onEvent(GoalEvent event) {
+        return true;
+    }
 }
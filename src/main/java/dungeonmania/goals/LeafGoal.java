@@ -0,0 +1,43 @@
+package dungeonmania.goals;
+
+import dungeonmania.Dungeon;
+
+/*
+ * A goal that is not made of other goals. Whether it is finished is worked
+ * out once and kept until the event it depends on happens. The cache is not
+ * saved, so a loaded game works it out again.
+ */
+public abstract class LeafGoal implements GoalsInterface {
+    private static final long serialVersionUID = -993494322751095847L;
+
+    private transient boolean known;
+    private transient boolean finished;
+
+    /*
+     * The event that may change whether the goal is finished
+     */
+    protected abstract GoalEvent dependsOn();
+
+    /*
+     * Check if the goal is finished, looking at the game
+     */
+    protected abstract boolean evaluate(Dungeon dungeon);
+
+    @Override
+    public final boolean isFinished(Dungeon dungeon) {
+        if (!known) {
+            finished = evaluate(dungeon);
+            known = true;
+        }
+        return finished;
+    }
+
+    @Override
+    public boolean onEvent(GoalEvent event) {
+        if (event != dependsOn()) {
+            return false;
+        }
+        known = false;
+        return true;
+    }
+}
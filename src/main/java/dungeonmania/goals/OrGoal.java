@@ -1,14 +1,21 @@
 package dungeonmania.goals;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 
 public class OrGoal implements GoalsInterface {
+    private static final long serialVersionUID = -7836612405871503844L;
 
     private Dungeon dungeon;
     private List<GoalsInterface> orGoalList = new ArrayList<>();
+    // worked out from the subgoals and kept until one of them changes, not saved
+    private transient boolean known;
+    private transient boolean finished;
+    private transient String type;
 
     public OrGoal(Dungeon dungeon, List<GoalsInterface> orGoalList) {
         this.dungeon = dungeon;
@@ -17,6 +24,7 @@ public class OrGoal implements GoalsInterface {
 
     public void setGoals(GoalsInterface goal) {
         orGoalList.add(goal);
+        forget();
     }
 
     public List<GoalsInterface> getOrGoalList() {
@@ -25,6 +33,14 @@ public class OrGoal implements GoalsInterface {
 
     @Override
     public boolean isFinished(Dungeon dungeon) {
+        if (!known) {
+            finished = evaluate(dungeon);
+            known = true;
+        }
+        return finished;
+    }
+
+    private boolean evaluate(Dungeon dungeon) {
         for (GoalsInterface goals: orGoalList) {
             if (goals.isFinished(dungeon)) {
                 return true;
@@ -35,6 +51,31 @@ public class OrGoal implements GoalsInterface {
 
     @Override
     public String getType() {
+        if (type == null) {
+            type = describe();
+        }
+        return type;
+    }
+
+    @Override
+    public boolean onEvent(GoalEvent event) {
+        boolean affected = false;
+        for (GoalsInterface goal: orGoalList) {
+            // every subgoal has to hear the event, not just the first one that depends on it
+            affected |= goal.onEvent(event);
+        }
+        if (affected) {
+            forget();
+        }
+        return affected;
+    }
+
+    private void forget() {
+        known = false;
+        type = null;
+    }
+
+    private String describe() {
         String type = "";
         for (int i = 0; i < orGoalList.size(); i++) {
             if (! orGoalList.get(i).isFinished(dungeon)) {
@@ -46,4 +87,16 @@ public class OrGoal implements GoalsInterface {
         }
         return "(" + type.trim().replace("null", "") + ")";
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(dungeon);
+        out.writeObject(orGoalList);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        dungeon = in.readObject(Dungeon.class);
+        orGoalList = in.readList(GoalsInterface.class);
+    }
 }
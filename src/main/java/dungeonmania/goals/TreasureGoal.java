@@ -1,11 +1,14 @@
 package dungeonmania.goals;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.entities.Player;
 import dungeonmania.items.ItemEntity;
 import dungeonmania.items.Treasure;
+import java.io.IOException;
 
-public class TreasureGoal implements GoalsInterface{
+public class TreasureGoal extends LeafGoal {
+    private static final long serialVersionUID = 840128963804894411L;
 
     private Dungeon dungeon;
 
@@ -16,7 +19,7 @@ public class TreasureGoal implements GoalsInterface{
     }
 
     @Override
-    public boolean isFinished(Dungeon dungeon) {
+    protected boolean evaluate(Dungeon dungeon) {
         // collect the target treasure
         Player player = dungeon.getPlayer();
         for (ItemEntity item: player.getInventory()) {
@@ -29,9 +32,23 @@ public class TreasureGoal implements GoalsInterface{
         return false;
     }
 
+    @Override
+    protected GoalEvent dependsOn() {
+        return GoalEvent.ITEM_COLLECTED;
+    }
+
     @Override
     public String getType() {
         return type;
     }
-    
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeObject(dungeon);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        dungeon = in.readObject(Dungeon.class);
+    }
 }
@@ -3,6 +3,7 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class Arrow extends ItemEntity {
+    private static final long serialVersionUID = -487638883291422231L;
     
     public Arrow(Position position, String type) {
         super(position, type);
@@ -1,13 +1,17 @@
 package dungeonmania.items;
 
 import dungeonmania.Dungeon;
+import dungeonmania.SaveCodec;
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.FloorSwitch;
+import dungeonmania.util.PackedPosition;
 import dungeonmania.util.Position;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Bomb extends ItemEntity {
+    private static final long serialVersionUID = -2111582772266783343L;
 
     private int radius;
     private Boolean picked=false;
@@ -26,25 +30,23 @@ public class Bomb extends ItemEntity {
     }
     public void setPicked() {
         this.picked = true;
+        changed();
     }
 
     public void detonate(Dungeon dungeon) {
 
-        List<Position> positions = this.getPositioninRadius();
-        for (Position position: positions) {
-            dungeon.explode(position);
+        long centre = getPosition().pack();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                dungeon.explode(PackedPosition.translate(centre, dx, dy));
+            }
         }
-        return;
     }
 
     public Boolean hasActiveSwitch(Dungeon dungeon) {
-        List<Position> positions = new ArrayList<>();
-        positions.add(new Position(this.getPosition().getX() - 1, this.getPosition().getY()));
-        positions.add(new Position(this.getPosition().getX() + 1, this.getPosition().getY()));
-        positions.add(new Position(this.getPosition().getX(), this.getPosition().getY() - 1));
-        positions.add(new Position(this.getPosition().getX(), this.getPosition().getY() + 1));
-        for (Position position: positions) {
-            Entity entity = dungeon.getEntity(position);
+        long centre = getPosition().pack();
+        for (int i = 0; i < 4; i++) {
+            Entity entity = dungeon.getEntity(PackedPosition.cardinal(centre, i));
             if (entity == null) {
                 continue;
             }
@@ -73,4 +75,18 @@ public class Bomb extends ItemEntity {
         }
         return positions;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(radius);
+        out.writeObject(picked);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        radius = in.readInt();
+        picked = in.readObject(Boolean.class);
+    }
+}
@@ -3,6 +3,7 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class InvinciblePotion extends Potion {
+    private static final long serialVersionUID = -3213001730929994470L;
 
     public InvinciblePotion(Position position, String type, int duration) {
         super(position, type, duration);
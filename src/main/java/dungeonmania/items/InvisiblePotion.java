@@ -3,6 +3,7 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class InvisiblePotion extends Potion {
+    private static final long serialVersionUID = -2076566196057315900L;
 
     public InvisiblePotion(Position position, String type, int duration) {
         super(position, type, duration);
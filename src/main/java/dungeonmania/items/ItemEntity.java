@@ -4,6 +4,7 @@ import dungeonmania.entities.Entity;
 import dungeonmania.util.Position;
 
 public abstract class ItemEntity extends Entity {
+    private static final long serialVersionUID = 4559744081335902878L;
 
     public ItemEntity(Position position, String type) {
         super(position, type);
@@ -1,8 +1,11 @@
 package dungeonmania.items;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Key extends ItemEntity {
+    private static final long serialVersionUID = -8224156848010010181L;
 
     private int keyId;
 
@@ -14,5 +17,16 @@ public class Key extends ItemEntity {
     public int getKeyId() {
         return keyId;
     }
-       
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(keyId);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        keyId = in.readInt();
+    }
 }
@@ -1,8 +1,12 @@
 package dungeonmania.items;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public abstract class Potion extends ItemEntity {
+    private static final long serialVersionUID = -1489455825641172837L;
+
     private int duration;
     public Potion(Position position, String type, int duration) {
         super(position, type);
@@ -15,5 +19,18 @@ public abstract class Potion extends ItemEntity {
 
     public void decreaseDuration() {
         this.duration -= 1;
+        changed();
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(duration);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        duration = in.readInt();
     }
 }
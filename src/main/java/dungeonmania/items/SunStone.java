@@ -3,6 +3,8 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class SunStone extends Treasure {
+    private static final long serialVersionUID = 8704957576151253981L;
+
     public SunStone(Position position, String type, int goal) {
         super(position, type, goal);
     }
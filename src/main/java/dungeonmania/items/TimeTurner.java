@@ -2,6 +2,7 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class TimeTurner extends ItemEntity {
+    private static final long serialVersionUID = -4361502801596170385L;
 
     public TimeTurner(Position position, String type) {
         super(position, type);
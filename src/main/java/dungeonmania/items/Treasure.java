@@ -1,8 +1,11 @@
 package dungeonmania.items;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Treasure extends ItemEntity{
+    private static final long serialVersionUID = 2754433047521574744L;
 
     private int goal;
 
@@ -15,4 +18,15 @@ public class Treasure extends ItemEntity{
         return goal;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(goal);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        goal = in.readInt();
+    }
+}
@@ -3,6 +3,7 @@ package dungeonmania.items;
 import dungeonmania.util.Position;
 
 public class Wood extends ItemEntity {
+    private static final long serialVersionUID = 323586296412199467L;
     
     public Wood(Position position, String type) {
         super(position, type);
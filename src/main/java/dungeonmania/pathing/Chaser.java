@@ -0,0 +1,14 @@
+package dungeonmania.pathing;
+
+import dungeonmania.entities.Entity;
+
+/*
+ * An enemy that paths towards the player. Chasers of the same class share
+ * one distance field per tick, so they must share the same blocking rule.
+ */
+public interface Chaser {
+    /*
+     * Whether the entity stops the chaser from entering its cell
+     */
+    public boolean isBlocking(Entity entity);
+}
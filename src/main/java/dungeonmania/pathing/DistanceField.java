@@ -0,0 +1,93 @@
+package dungeonmania.pathing;
+
+import java.util.Arrays;
+
+import dungeonmania.util.Position;
+
+/*
+ * Cost of reaching a single target from every cell of a PathGrid, found with
+ * one reverse Dijkstra from the target. Any number of movers sharing the grid
+ * can then pick their next step by looking at their four neighbours.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final PathGrid grid;
+    private final int[] dist;
+    private final int goal;
+
+    public DistanceField(PathGrid grid, Position target) {
+        this.grid = grid;
+        this.goal = grid.indexOf(target);
+        this.dist = new int[grid.size()];
+        Arrays.fill(dist, UNREACHABLE);
+        if (grid.isBlocked(goal)) {
+            return;
+        }
+
+        boolean[] closed = new boolean[grid.size()];
+        IntMinHeap open = new IntMinHeap(grid.getWidth() + grid.getHeight());
+        dist[goal] = 0;
+        open.push(goal, 0);
+        while (!open.isEmpty()) {
+            int u = open.pop();
+            if (closed[u]) {
+                continue;
+            }
+            closed[u] = true;
+            // moving from v into u costs the cost of u
+            int alt = dist[u] + grid.getCost(u);
+            for (int d = 0; d < 4; d++) {
+                int v = grid.neighbour(u, d);
+                if (v < 0 || closed[v] || grid.isBlocked(v) || alt >= dist[v]) {
+                    continue;
+                }
+                dist[v] = alt;
+                open.push(v, alt);
+            }
+        }
+    }
+
+    public boolean contains(Position position) {
+        return grid.contains(position);
+    }
+
+    /**
+     * @param position
+     * @return cost of reaching the target from position, or UNREACHABLE
+     */
+    public int getDistance(Position position) {
+        return dist[grid.indexOf(position)];
+    }
+
+    /**
+     * cheapest adjacent step towards the target, ties broken in the order
+     * up, right, down, left
+     * @param source must be inside the grid
+     * @return the position to move to, or null if the target is unreachable
+     *         or already reached
+     */
+    public Position nextStep(Position source) {
+        int start = grid.indexOf(source);
+        if (start == goal) {
+            return null;
+        }
+        int best = -1;
+        long bestCost = Long.MAX_VALUE;
+        for (int d = 0; d < 4; d++) {
+            int step = grid.neighbour(start, d);
+            if (step < 0 || dist[step] == UNREACHABLE) {
+                continue;
+            }
+            long cost = (long) grid.getCost(step) + dist[step];
+            if (cost < bestCost) {
+                best = step;
+                bestCost = cost;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        return grid.toPosition(best);
+    }
+}
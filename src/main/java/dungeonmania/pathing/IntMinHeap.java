@@ -0,0 +1,82 @@
+package dungeonmania.pathing;
+
+import java.util.Arrays;
+
+/*
+ * Binary min-heap of int nodes keyed by int priorities, so the open set of a
+ * search never boxes or allocates per push.
+ */
+class IntMinHeap {
+    private int[] nodes;
+    private int[] priorities;
+    private int size = 0;
+
+    IntMinHeap(int capacity) {
+        capacity = Math.max(capacity, 4);
+        nodes = new int[capacity];
+        priorities = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int peekPriority() {
+        return priorities[0];
+    }
+
+    void push(int node, int priority) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        int i = size++;
+        // sift up
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+    }
+
+    /**
+     * remove the node with the lowest priority
+     * @return node
+     */
+    int pop() {
+        int top = nodes[0];
+        size--;
+        int node = nodes[size];
+        int priority = priorities[size];
+        int i = 0;
+        // sift down
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priorities[child] >= priority) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+        return top;
+    }
+}
@@ -0,0 +1,115 @@
+package dungeonmania.pathing;
+
+import java.util.Arrays;
+
+import dungeonmania.util.Position;
+
+/*
+ * Shared shortest path search for enemies that chase the player.
+ * A* over a PathGrid with a Manhattan distance heuristic and a binary heap
+ * open set, so a search costs O(cells log cells) over the real dungeon bounds.
+ *
+ * The search runs backwards from the target towards the mover, which gives
+ * the remaining cost from each cell next to the mover. The step taken is the
+ * cheapest of those, with ties broken in the order up, right, down, left.
+ */
+public final class PathFinder {
+
+    private PathFinder() {}
+
+    /**
+     * find the first step along the cheapest path from source to target
+     * @param grid
+     * @param source
+     * @param target
+     * @return the position to move to, or null if the target is unreachable
+     *         or already reached
+     */
+    public static Position nextStep(PathGrid grid, Position source, Position target) {
+        int start = grid.indexOf(source);
+        int goal = grid.indexOf(target);
+        if (start == goal || grid.isBlocked(goal)) {
+            return null;
+        }
+
+        // cells the mover could step onto
+        int[] steps = new int[4];
+        int remaining = 0;
+        for (int d = 0; d < 4; d++) {
+            steps[d] = grid.neighbour(start, d);
+            if (steps[d] >= 0 && grid.isBlocked(steps[d])) {
+                steps[d] = -1;
+            }
+            if (steps[d] >= 0) {
+                remaining++;
+            }
+        }
+
+        // dist holds the cost of getting from a cell to the target
+        int[] dist = new int[grid.size()];
+        boolean[] closed = new boolean[grid.size()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+
+        int sourceX = source.getX();
+        int sourceY = source.getY();
+        int weight = grid.getMinCost();
+
+        int best = -1;
+        int bestCost = Integer.MAX_VALUE;
+        IntMinHeap open = new IntMinHeap(grid.getWidth() + grid.getHeight());
+        dist[goal] = 0;
+        open.push(goal, 0);
+        while (!open.isEmpty() && remaining > 0) {
+            // no unsettled step can cost less than the cheapest open cell
+            if (best >= 0 && open.peekPriority() + weight > bestCost) {
+                break;
+            }
+            int u = open.pop();
+            if (closed[u]) {
+                continue;
+            }
+            closed[u] = true;
+
+            for (int d = 0; d < 4; d++) {
+                if (steps[d] == u) {
+                    remaining--;
+                    best = cheapestStep(grid, steps, dist, closed);
+                    bestCost = grid.getCost(best) + dist[best];
+                }
+            }
+
+            // moving from v into u costs the cost of u
+            int alt = dist[u] + grid.getCost(u);
+            for (int d = 0; d < 4; d++) {
+                int v = grid.neighbour(u, d);
+                if (v < 0 || closed[v] || grid.isBlocked(v) || alt >= dist[v]) {
+                    continue;
+                }
+                dist[v] = alt;
+                int h = Math.abs(grid.getX(v) - sourceX) + Math.abs(grid.getY(v) - sourceY) - 1;
+                open.push(v, alt + weight * Math.max(h, 0));
+            }
+        }
+
+        if (best < 0) {
+            return null;
+        }
+        return grid.toPosition(best);
+    }
+
+    private static int cheapestStep(PathGrid grid, int[] steps, int[] dist, boolean[] closed) {
+        int best = -1;
+        int bestCost = Integer.MAX_VALUE;
+        for (int step: steps) {
+            if (step < 0 || !closed[step]) {
+                continue;
+            }
+            int cost = grid.getCost(step) + dist[step];
+            if (cost < bestCost) {
+                best = step;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,146 @@
+package dungeonmania.pathing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.SwampTile;
+import dungeonmania.util.Position;
+
+/*
+ * Step costs over the bounding box of a dungeon, stored in a flat int array.
+ * Each cell holds the cost of moving into it: 1 for open floor, the movement
+ * factor for swamp tiles and BLOCKED for cells the mover cannot enter.
+ * The box is padded by one cell so paths can go around the outermost entities.
+ */
+public class PathGrid {
+    public static final int BLOCKED = -1;
+
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final int height;
+    private final int[] cost;
+    private int minCost = 1;
+
+    /**
+     * @param entities entities in the dungeon
+     * @param isBlocking whether an entity stops the mover from entering its cell
+     * @param include extra positions that must lie inside the grid
+     */
+    public PathGrid(List<Entity> entities, Predicate<Entity> isBlocking, Position... include) {
+        int lowX = Integer.MAX_VALUE;
+        int lowY = Integer.MAX_VALUE;
+        int highX = Integer.MIN_VALUE;
+        int highY = Integer.MIN_VALUE;
+        for (Entity entity: entities) {
+            Position p = entity.getPosition();
+            lowX = Math.min(lowX, p.getX());
+            lowY = Math.min(lowY, p.getY());
+            highX = Math.max(highX, p.getX());
+            highY = Math.max(highY, p.getY());
+        }
+        for (Position p: include) {
+            lowX = Math.min(lowX, p.getX());
+            lowY = Math.min(lowY, p.getY());
+            highX = Math.max(highX, p.getX());
+            highY = Math.max(highY, p.getY());
+        }
+        this.minX = lowX - 1;
+        this.minY = lowY - 1;
+        this.width = highX - lowX + 3;
+        this.height = highY - lowY + 3;
+        this.cost = new int[width * height];
+        Arrays.fill(cost, 1);
+
+        // walk backwards so the first swamp tile in the list decides the cost
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            Entity entity = entities.get(i);
+            int index = indexOf(entity.getPosition());
+            if (isBlocking.test(entity)) {
+                cost[index] = BLOCKED;
+            } else if (entity instanceof SwampTile && cost[index] != BLOCKED) {
+                cost[index] = ((SwampTile) entity).getMovementFactor();
+                minCost = Math.min(minCost, cost[index]);
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return cost.length;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= minX && x < minX + width && y >= minY && y < minY + height;
+    }
+
+    public boolean contains(Position position) {
+        return contains(position.getX(), position.getY());
+    }
+
+    public int indexOf(int x, int y) {
+        return (y - minY) * width + (x - minX);
+    }
+
+    public int indexOf(Position position) {
+        return indexOf(position.getX(), position.getY());
+    }
+
+    public int getX(int index) {
+        return index % width + minX;
+    }
+
+    public int getY(int index) {
+        return index / width + minY;
+    }
+
+    public Position toPosition(int index) {
+        return new Position(getX(index), getY(index));
+    }
+
+    public int getCost(int index) {
+        return cost[index];
+    }
+
+    public boolean isBlocked(int index) {
+        return cost[index] == BLOCKED;
+    }
+
+    /**
+     * cheapest cost of a single step anywhere in the grid, used to keep the
+     * search heuristic admissible when swamp tiles are cheaper than floor
+     */
+    public int getMinCost() {
+        return minCost;
+    }
+
+    /**
+     * cardinally adjacent cell of index in the order up, right, down, left
+     * @param index
+     * @param direction 0 to 3
+     * @return neighbouring index or -1 if it falls outside the grid
+     */
+    public int neighbour(int index, int direction) {
+        int col = index % width;
+        int row = index / width;
+        switch (direction) {
+            case 0:
+                return row > 0 ? index - width : -1;
+            case 1:
+                return col < width - 1 ? index + 1 : -1;
+            case 2:
+                return row < height - 1 ? index + width : -1;
+            default:
+                return col > 0 ? index - 1 : -1;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dungeonmania.response.models;
+
+import java.util.List;
+
+public final class BatchResponse {
+    private final DungeonResponse dungeon;
+    private final int actionsApplied;
+    private final List<BattleSummaryResponse> battles;
+
+    public BatchResponse(DungeonResponse dungeon, int actionsApplied, List<BattleSummaryResponse> battles) {
+        this.dungeon = dungeon;
+        this.actionsApplied = actionsApplied;
+        this.battles = battles;
+    }
+
+    public final DungeonResponse getDungeon() {
+        return dungeon;
+    }
+
+    public final int getActionsApplied() {
+        return actionsApplied;
+    }
+
+    public final List<BattleSummaryResponse> getBattles() {
+        return battles;
+    }
+}
@@ -0,0 +1,37 @@
+package dungeonmania.response.models;
+
+public final class BattleSummaryResponse {
+    private final int action;
+    private final String enemy;
+    private final int rounds;
+    private final double finalPlayerHealth;
+    private final double finalEnemyHealth;
+
+    public BattleSummaryResponse(int action, String enemy, int rounds, double finalPlayerHealth, double finalEnemyHealth) {
+        this.action = action;
+        this.enemy = enemy;
+        this.rounds = rounds;
+        this.finalPlayerHealth = finalPlayerHealth;
+        this.finalEnemyHealth = finalEnemyHealth;
+    }
+
+    public final int getAction() {
+        return action;
+    }
+
+    public final String getEnemy() {
+        return enemy;
+    }
+
+    public final int getRounds() {
+        return rounds;
+    }
+
+    public final double getFinalPlayerHealth() {
+        return finalPlayerHealth;
+    }
+
+    public final double getFinalEnemyHealth() {
+        return finalEnemyHealth;
+    }
+}
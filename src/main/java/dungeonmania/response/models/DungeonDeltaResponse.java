@@ -0,0 +1,89 @@
+package dungeonmania.response.models;
+
+import java.util.List;
+
+public final class DungeonDeltaResponse {
+    private final String dungeonId;
+    private final String dungeonName;
+    private final long baseVersion;
+    private final long version;
+    private final boolean full;
+    private final List<EntityResponse> added;
+    private final List<EntityResponse> changed;
+    private final List<String> removed;
+    private final List<ItemResponse> inventory;
+    private final List<BattleResponse> battles;
+    private final List<String> buildables;
+    private final String goals;
+
+    public DungeonDeltaResponse(String dungeonId, String dungeonName, long baseVersion, long version, boolean full,
+            List<EntityResponse> added, List<EntityResponse> changed, List<String> removed,
+            List<ItemResponse> inventory, List<BattleResponse> battles, List<String> buildables, String goals) {
+        this.dungeonId = dungeonId;
+        this.dungeonName = dungeonName;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.full = full;
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+        this.inventory = inventory;
+        this.battles = battles;
+        this.buildables = buildables;
+        this.goals = goals;
+    }
+
+    public final String getDungeonId() {
+        return dungeonId;
+    }
+
+    public final String getDungeonName() {
+        return dungeonName;
+    }
+
+    public final long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if this is a full resync, added then holds every entity
+     */
+    public final boolean isFull() {
+        return full;
+    }
+
+    public final List<EntityResponse> getAdded() {
+        return added;
+    }
+
+    public final List<EntityResponse> getChanged() {
+        return changed;
+    }
+
+    public final List<String> getRemoved() {
+        return removed;
+    }
+
+    public final List<ItemResponse> getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @return every battle, or null if they have not changed since the base version
+     */
+    public final List<BattleResponse> getBattles() {
+        return battles;
+    }
+
+    public final List<String> getBuildables() {
+        return buildables;
+    }
+
+    public final String getGoals() {
+        return goals;
+    }
+}
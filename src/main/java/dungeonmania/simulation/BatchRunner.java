@@ -0,0 +1,121 @@
+package dungeonmania.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import dungeonmania.Action;
+import dungeonmania.Dungeon;
+import dungeonmania.DungeonManiaController;
+import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.simulation.SimulationResult.Outcome;
+
+/*
+ * Plays many games at once without the web server.
+ * Every job gets its own controller and dungeon, and games share nothing but
+ * the parsed templates and configs, so throughput grows with the number of
+ * worker threads.
+ */
+public class BatchRunner implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    /**
+     * runner with a worker for every processor
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRunner(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * play every job and hand each result over as soon as its game ends.
+     * Results are handed over one at a time, in the order the games end.
+     * @param jobs
+     * @param results
+     */
+    public void run(List<SimulationJob> jobs, Consumer<SimulationResult> results) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (SimulationJob job: jobs) {
+            tasks.add(pool.submit(() -> {
+                SimulationResult result = play(job);
+                synchronized (results) {
+                    results.accept(result);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task: tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * play every job and wait for all of them
+     * @param jobs
+     * @return results in the same order as the jobs
+     */
+    public List<SimulationResult> runAll(List<SimulationJob> jobs) {
+        SimulationResult[] results = new SimulationResult[jobs.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            int index = i;
+            tasks.add(pool.submit(() -> {
+                results[index] = play(jobs.get(index));
+            }));
+        }
+        for (ForkJoinTask<?> task: tasks) {
+            task.join();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * play one job on the calling thread, stopping once the game is won or lost.
+     * Actions are applied without building a response, the game is only looked at
+     * to see whether it has ended.
+     * @param job
+     * @return the result
+     */
+    public static SimulationResult play(SimulationJob job) {
+        DungeonManiaController controller = new DungeonManiaController();
+        boolean started = false;
+        int ticks = 0;
+        try {
+            controller.newGame(job.getDungeon(), job.getConfig(), job.getSeed());
+            started = true;
+            for (Action action: job.getScript()) {
+                if (outcome(controller.getDungeon()) != Outcome.UNFINISHED) {
+                    break;
+                }
+                controller.apply(action);
+                if (action.isTick()) {
+                    ticks++;
+                }
+            }
+            return new SimulationResult(job, outcome(controller.getDungeon()), ticks, controller.getBattleResponses(), null);
+        } catch (InvalidActionException | RuntimeException e) {
+            return new SimulationResult(job, Outcome.FAILED, ticks,
+                    started ? controller.getBattleResponses() : List.of(), e.toString());
+        } finally {
+            // deletes the history the game archived to disk
+            controller.close();
+        }
+    }
+
+    private static Outcome outcome(Dungeon dungeon) {
+        if (dungeon.getGoals().isEmpty()) {
+            return Outcome.WON;
+        }
+        return dungeon.checkPlayer() ? Outcome.UNFINISHED : Outcome.LOST;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
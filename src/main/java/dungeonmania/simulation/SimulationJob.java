@@ -0,0 +1,65 @@
+package dungeonmania.simulation;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import dungeonmania.Action;
+import dungeonmania.DungeonTemplate;
+import dungeonmania.GameConfig;
+
+/*
+ * One game for the batch runner: a dungeon, a config, the actions to play and a seed.
+ * Templates and configs are only read, so any number of jobs can share them.
+ * Jobs with the same dungeon, config, script and seed always play out the same way.
+ */
+public final class SimulationJob {
+    private final String name;
+    private final DungeonTemplate dungeon;
+    private final GameConfig config;
+    private final List<Action> script;
+    private final long seed;
+
+    public SimulationJob(String name, DungeonTemplate dungeon, GameConfig config, List<Action> script, long seed) {
+        this.name = name;
+        this.dungeon = dungeon;
+        this.config = config;
+        this.script = Collections.unmodifiableList(script);
+        this.seed = seed;
+    }
+
+    /**
+     * a job for a dungeon and config from the resource folders
+     * @param dungeonName
+     * @param configName
+     * @param script
+     * @param seed
+     * @return the job, named after the dungeon, config and seed
+     * @throws IOException if the dungeon or config cannot be read
+     */
+    public static SimulationJob load(String dungeonName, String configName, List<Action> script, long seed)
+            throws IOException {
+        return new SimulationJob(dungeonName + "/" + configName + "#" + seed, DungeonTemplate.load(dungeonName),
+                GameConfig.load(configName), script, seed);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DungeonTemplate getDungeon() {
+        return dungeon;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public List<Action> getScript() {
+        return script;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,67 @@
+package dungeonmania.simulation;
+
+import java.util.List;
+
+import dungeonmania.response.models.BattleResponse;
+
+/*
+ * How a game played by the batch runner ended
+ */
+public final class SimulationResult {
+    public enum Outcome {
+        // every goal was completed
+        WON,
+        // the player died
+        LOST,
+        // the script ran out before the game ended
+        UNFINISHED,
+        // the game could not be started or an action was rejected
+        FAILED
+    }
+
+    private final SimulationJob job;
+    private final Outcome outcome;
+    private final int ticks;
+    private final List<BattleResponse> battles;
+    private final String error;
+
+    SimulationResult(SimulationJob job, Outcome outcome, int ticks, List<BattleResponse> battles, String error) {
+        this.job = job;
+        this.outcome = outcome;
+        this.ticks = ticks;
+        this.battles = battles;
+        this.error = error;
+    }
+
+    public SimulationJob getJob() {
+        return job;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return number of ticks played before the game ended
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    public List<BattleResponse> getBattles() {
+        return battles;
+    }
+
+    /**
+     * @return why the game failed, or null if it did not
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return job.getName() + ": " + outcome + " after " + ticks + " ticks, " + battles.size() + " battles"
+                + (error == null ? "" : " (" + error + ")");
+    }
+}
@@ -0,0 +1,76 @@
+package dungeonmania.util;
+
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Hands out entity ids for one dungeon. A dungeon is only played on one thread
+ * at a time, so a plain counter is enough and games on other threads never
+ * touch it. Ids are counted from 0 in every dungeon, so the same small ids turn
+ * up in every game and their strings are made once and shared.
+ * Entities made outside any dungeon get negative ids from one global counter,
+ * so they never clash with the ids of a dungeon.
+ */
+public final class IdAllocator implements Serializable, Saveable {
+    private static final long serialVersionUID = 1L;
+    private static final int CACHED_IDS = 1 << 14;
+    // filled in as ids are first used, Strings are immutable so a racing fill is harmless
+    private static final String[] STRINGS = new String[CACHED_IDS];
+    private static final AtomicLong GLOBAL = new AtomicLong();
+
+    private int next;
+
+    public IdAllocator() {
+        this(0);
+    }
+
+    /**
+     * @param next the first id to hand out
+     */
+    public IdAllocator(int next) {
+        this.next = next;
+    }
+
+    public String next() {
+        return toString(next++);
+    }
+
+    /**
+     * @return the id the next call to next() hands out
+     */
+    public int peek() {
+        return next;
+    }
+
+    /**
+     * @return an id for an entity outside any dungeon, unique across every game
+     */
+    public static String global() {
+        return String.valueOf(-GLOBAL.incrementAndGet());
+    }
+
+    private static String toString(int id) {
+        if (id < 0 || id >= CACHED_IDS) {
+            return String.valueOf(id);
+        }
+        String cached = STRINGS[id];
+        if (cached == null) {
+            cached = String.valueOf(id);
+            STRINGS[id] = cached;
+        }
+        return cached;
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeInt(next);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        next = in.readInt();
+    }
+}
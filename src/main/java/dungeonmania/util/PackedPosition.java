@@ -0,0 +1,91 @@
+package dungeonmania.util;
+
+/*
+ * A position packed into a single long, for loops that would otherwise make
+ * a Position for every cell they look at. x takes the top 24 bits, y the next
+ * 24 and the layer the low 16, each as a signed number, so coordinates must
+ * lie within +-2^23 and layers within a short.
+ * Like Position.equals, cell() ignores the layer, so two packed positions are
+ * the same cell when their cells are equal.
+ */
+public final class PackedPosition {
+    private static final long LAYER_MASK = 0xFFFFL;
+    private static final long Y_MASK = 0xFFFFFFL;
+
+    // offsets in the order of Position.getAdjacentPositions
+    private static final int[] ADJACENT_X = {-1, 0, 1, 1, 1, 0, -1, -1};
+    private static final int[] ADJACENT_Y = {-1, -1, -1, 0, 1, 1, 1, 0};
+    // offsets in the order of Position.getCardinallyAdjacentPositions
+    private static final int[] CARDINAL_X = {0, 1, 0, -1};
+    private static final int[] CARDINAL_Y = {-1, 0, 1, 0};
+
+    private PackedPosition() {}
+
+    public static long pack(int x, int y, int layer) {
+        return ((long) x << 40) | (((long) y & Y_MASK) << 16) | (layer & LAYER_MASK);
+    }
+
+    public static long pack(int x, int y) {
+        return pack(x, y, 0);
+    }
+
+    public static long of(Position position) {
+        return pack(position.getX(), position.getY(), position.getLayer());
+    }
+
+    public static Position toPosition(long packed) {
+        return new Position(getX(packed), getY(packed), getLayer(packed));
+    }
+
+    public static int getX(long packed) {
+        return (int) (packed >> 40);
+    }
+
+    public static int getY(long packed) {
+        return (int) ((packed << 24) >> 40);
+    }
+
+    public static int getLayer(long packed) {
+        return (short) packed;
+    }
+
+    /**
+     * @param packed
+     * @return the position on layer 0, the same for every layer of a cell
+     */
+    public static long cell(long packed) {
+        return packed & ~LAYER_MASK;
+    }
+
+    public static long translate(long packed, int dx, int dy) {
+        return pack(getX(packed) + dx, getY(packed) + dy, getLayer(packed));
+    }
+
+    /**
+     * @param packed
+     * @param i 0 to 7, in the order of Position.getAdjacentPositions
+     * @return the i-th of the eight positions around packed, on layer 0
+     */
+    public static long adjacent(long packed, int i) {
+        return pack(getX(packed) + ADJACENT_X[i], getY(packed) + ADJACENT_Y[i]);
+    }
+
+    /**
+     * @param packed
+     * @param i 0 to 3 for up, right, down and left
+     * @return the i-th cardinally adjacent position, on layer 0
+     */
+    public static long cardinal(long packed, int i) {
+        return pack(getX(packed) + CARDINAL_X[i], getY(packed) + CARDINAL_Y[i]);
+    }
+
+    /**
+     * @param a
+     * @param b
+     * @param radius
+     * @return true if b is in the square of the given radius around a
+     */
+    public static boolean isWithin(long a, long b, int radius) {
+        return Math.abs(getX(a) - getX(b)) <= radius && Math.abs(getY(a) - getY(b)) <= radius;
+    }
+}
@@ -2,10 +2,11 @@ package dungeonmania.util;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.io.Serializable;
 
 public final class Position implements Serializable {
+    private static final long serialVersionUID = -4541420392002297273L;
+
     private final int x, y, layer;
 
     public Position(int x, int y, int layer) {
@@ -22,7 +23,9 @@ public final class Position implements Serializable {
 
     @Override
     public final int hashCode() {
-        return Objects.hash(x, y, layer);
+        // z doesn't matter, must agree with equals
+        // same value as Objects.hash(x, y) without boxing the coordinates
+        return 31 * (31 + x) + y;
     }
 
     @Override
@@ -56,7 +59,7 @@ public final class Position implements Serializable {
     }
 
     public final Position translateBy(int x, int y) {
-        return this.translateBy(new Position(x, y));
+        return new Position(this.x + x, this.y + y, layer);
     }
 
     public final Position translateBy(Direction direction) {
@@ -67,6 +70,13 @@ public final class Position implements Serializable {
         return new Position(this.x + position.x, this.y + position.y, this.layer + position.layer);
     }
 
+    /**
+     * @return this position packed into a long, see PackedPosition
+     */
+    public final long pack() {
+        return PackedPosition.pack(x, y, layer);
+    }
+
     // (Note: doesn't include z)
 
     /**
@@ -97,7 +107,7 @@ public final class Position implements Serializable {
     // 7 p 3
     // 6 5 4
     public List<Position> getAdjacentPositions() {
-        List<Position> adjacentPositions = new ArrayList<>();
+        List<Position> adjacentPositions = new ArrayList<>(8);
         adjacentPositions.add(new Position(x-1, y-1));
         adjacentPositions.add(new Position(x  , y-1));
         adjacentPositions.add(new Position(x+1, y-1));
@@ -110,7 +120,7 @@ public final class Position implements Serializable {
     }
 
     public List<Position> getCardinallyAdjacentPositions() {
-        List<Position> cardinallyAdjacentPositions = new ArrayList<>();
+        List<Position> cardinallyAdjacentPositions = new ArrayList<>(4);
         cardinallyAdjacentPositions.add(new Position(x  , y-1));
         cardinallyAdjacentPositions.add(new Position(x+1, y));
         cardinallyAdjacentPositions.add(new Position(x  , y+1));
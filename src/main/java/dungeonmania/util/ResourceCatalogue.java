@@ -0,0 +1,45 @@
+package dungeonmania.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Names of the resource files in each resource directory, scanned from the
+ * classpath once and then served from memory. A directory whose files change
+ * while the game is running, like saves, has to be invalidated by the writer.
+ */
+public final class ResourceCatalogue {
+    private static final Map<String, List<String>> NAMES = new ConcurrentHashMap<>();
+
+    private ResourceCatalogue() {}
+
+    /**
+     * @param directory relative to resources, e.g. `dungeons`
+     * @return read only list of file names without extensions, see
+     *         FileLoader.listFileNamesInResourceDirectory
+     */
+    public static List<String> getNames(String directory) {
+        return NAMES.computeIfAbsent(directory,
+            d -> Collections.unmodifiableList(FileLoader.listFileNamesInResourceDirectory(d)));
+    }
+
+    /**
+     * scan directories ahead of their first use, e.g. when the server starts
+     * @param directories
+     */
+    public static void preload(String... directories) {
+        for (String directory: directories) {
+            getNames(directory);
+        }
+    }
+
+    /**
+     * forget the names of a directory so the next lookup scans it again
+     * @param directory
+     */
+    public static void invalidate(String directory) {
+        NAMES.remove(directory);
+    }
+}
@@ -0,0 +1,113 @@
+package dungeonmania.util;
+
+import dungeonmania.SaveCodec;
+import dungeonmania.Saveable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Random numbers for one game.
+ * The same seed always gives the same numbers, so a game replays identically
+ * on any thread. The generator is SplitMix64, the algorithm behind
+ * java.util.SplittableRandom: it needs no locking, it is a plain serializable
+ * value that is saved with the game, and split() hands out an independent
+ * stream for a part of the game that should not disturb the others.
+ */
+public final class SeededRandom implements Serializable, Saveable {
+    private static final long serialVersionUID = 8237712912853600956L;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final AtomicLong SEED_SOURCE = new AtomicLong(System.nanoTime());
+
+    private long seed;
+    private long gamma;
+
+    public SeededRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SeededRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return a seed no other game started by this process has used
+     */
+    public static long newSeed() {
+        return mix64(SEED_SOURCE.getAndAdd(2 * GOLDEN_GAMMA));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * @param bound
+     * @return a number from 0 up to but not including bound
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+            // retry values that would make the result uneven
+        }
+        return r;
+    }
+
+    /**
+     * @return a number from 0 up to but not including 1
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return a new generator whose numbers do not overlap with this one's
+     */
+    public SeededRandom split() {
+        return new SeededRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        out.writeLong(seed);
+        out.writeLong(gamma);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        seed = in.readLong();
+        gamma = in.readLong();
+    }
+}
@@ -0,0 +1,89 @@
+package dungeonmania.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Runs tasks one at a time in the order they were offered, on top of another
+ * executor. Nothing is locked: the first task offered to an idle executor
+ * starts a drain on the backing executor, and tasks offered while it runs are
+ * queued for it. A closed executor takes no more tasks.
+ */
+public class SerialExecutor {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int CLOSED = 2;
+
+    private final Executor backing;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    /**
+     * @param backing runs the drains, Runnable::run drains on the thread that offered the task
+     */
+    public SerialExecutor(Executor backing) {
+        this.backing = backing;
+    }
+
+    /**
+     * @param task
+     * @return false if the executor is closed and the task will not run
+     */
+    public boolean offer(Runnable task) {
+        tasks.add(task);
+        if (state.compareAndSet(IDLE, RUNNING)) {
+            try {
+                backing.execute(this::drain);
+            } catch (RuntimeException e) {
+                // the drain never started, so nothing else will go idle for it
+                tasks.remove(task);
+                state.set(IDLE);
+                throw e;
+            }
+            return true;
+        }
+        // closed after the task was queued, take it back unless it already ran
+        return state.get() != CLOSED || !tasks.remove(task);
+    }
+
+    /**
+     * @return true if no task is queued or running
+     */
+    public boolean isIdle() {
+        return state.get() == IDLE && tasks.isEmpty();
+    }
+
+    /**
+     * close the executor if it is idle
+     * @return true if the executor is closed
+     */
+    public boolean tryClose() {
+        if (state.get() == CLOSED) {
+            return true;
+        }
+        return tasks.isEmpty() && state.compareAndSet(IDLE, CLOSED);
+    }
+
+    private void drain() {
+        do {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        // tasks report their own failures, one failing must not stop the rest,
+                        // not even with an Error such as a StackOverflowError
+                        e.printStackTrace();
+                    }
+                }
+            } finally {
+                // never left RUNNING, or no drain would ever start again
+                state.set(IDLE);
+            }
+            // a task may have been queued after the last poll but before going idle
+        } while (!tasks.isEmpty() && state.compareAndSet(IDLE, RUNNING));
+    }
+}
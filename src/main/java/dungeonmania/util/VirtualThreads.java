@@ -0,0 +1,38 @@
+package dungeonmania.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Virtual threads when the game runs on a JDK that has them (21 and later).
+ * The sources still build for Java 11, so the thread builder is looked up by
+ * reflection and callers fall back to platform threads when it is missing.
+ */
+public final class VirtualThreads {
+    private static final ThreadFactory FACTORY = lookupFactory();
+
+    private VirtualThreads() {}
+
+    public static boolean isAvailable() {
+        return FACTORY != null;
+    }
+
+    /**
+     * @return a factory making a new virtual thread per task
+     * @throws UnsupportedOperationException if this JDK has no virtual threads
+     */
+    public static ThreadFactory factory() {
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads need JDK 21 or later, running " + Runtime.version());
+        }
+        return FACTORY;
+    }
+
+    private static ThreadFactory lookupFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package dungeonmania.weapon;
 import dungeonmania.util.Position;
 
 public class Bow extends Buildable {
+    private static final long serialVersionUID = -1532318967458676907L;
 
     public Bow(Position position, int damage, int durability, String type) {
         super(position, damage, durability, type);
@@ -1,8 +1,12 @@
 package dungeonmania.weapon;
+import dungeonmania.SaveCodec;
 import dungeonmania.items.ItemEntity;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Buildable extends ItemEntity implements Weapon {
+    private static final long serialVersionUID = 4181848814450063662L;
+
     private double damage;
     // indicates max number of battles.
     private int durability;
@@ -24,6 +28,7 @@ public class Buildable extends ItemEntity implements Weapon {
 
     public void setDamage(double damage) {
         this.damage = damage;
+        changed();
     }
 
     public int getDurability() {
@@ -32,10 +37,25 @@ public class Buildable extends ItemEntity implements Weapon {
 
     public void setDurability(int durability) {
         this.durability = durability;
+        changed();
     }
 
     public void decreaseDurability() {
         durability = durability - 1;
+        changed();
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeDouble(damage);
+        out.writeInt(durability);
     }
 
-}
\ No newline at end of file
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        damage = in.readDouble();
+        durability = in.readInt();
+    }
+}
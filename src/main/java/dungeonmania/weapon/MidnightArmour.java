@@ -1,8 +1,12 @@
 package dungeonmania.weapon;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class MidnightArmour extends Buildable{
+    private static final long serialVersionUID = -4608423464350654651L;
+
     private int defence;
 
     public MidnightArmour(Position position, int damage, int defence, int durability, String type) {
@@ -16,10 +20,23 @@ public class MidnightArmour extends Buildable{
 
     public void setDefence(int defence) {
         this.defence = defence;
+        changed();
     }
 
     @Override
     public void decreaseDurability() {
         return;
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(defence);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        defence = in.readInt();
+    }
 }
@@ -1,11 +1,15 @@
 package dungeonmania.weapon;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.enemy.Assassin;
 import dungeonmania.enemy.Enemy;
 import dungeonmania.enemy.Mercenary;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Sceptre extends Buildable {
+    private static final long serialVersionUID = 8756269578793859941L;
+
     private int controlDuration = 0;
     private Enemy target = null;
 
@@ -20,6 +24,7 @@ public class Sceptre extends Buildable {
 
     public void setControlDuration(int controlDuration) {
         this.controlDuration = controlDuration;
+        changed();
     }
     public Enemy getTarget() {
         return target;
@@ -27,6 +32,7 @@ public class Sceptre extends Buildable {
 
     public void setTarget(Enemy target) {
         this.target = target;
+        changed();
     }
 
     public void tickDuration() {
@@ -34,6 +40,7 @@ public class Sceptre extends Buildable {
             return;
         }
         controlDuration -= 1;
+        changed();
         if (controlDuration == 0) {
             //  finish mind control, enemy is no longer ally
             if (target instanceof Mercenary) {
@@ -49,4 +56,18 @@ public class Sceptre extends Buildable {
             } 
         }
     }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(controlDuration);
+        out.writeObject(target);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        controlDuration = in.readInt();
+        target = in.readObject(Enemy.class);
+    }
 }
@@ -1,8 +1,11 @@
 package dungeonmania.weapon;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Shield extends Buildable {
+    private static final long serialVersionUID = -9219209920394680927L;
 
     private int defence;
 
@@ -17,6 +20,18 @@ public class Shield extends Buildable {
 
     public void setDefence(int defence) {
         this.defence = defence;
+        changed();
     }
 
-}
\ No newline at end of file
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeInt(defence);
+    }
+
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        defence = in.readInt();
+    }
+}
@@ -1,9 +1,13 @@
 package dungeonmania.weapon;
 
+import dungeonmania.SaveCodec;
 import dungeonmania.items.ItemEntity;
 import dungeonmania.util.Position;
+import java.io.IOException;
 
 public class Sword extends ItemEntity implements Weapon {
+    private static final long serialVersionUID = -1241339281392210491L;
+
     private double damage;
     private int durability;
 
@@ -19,6 +23,7 @@ public class Sword extends ItemEntity implements Weapon {
 
     public void setDamage(double damage) {
         this.damage = damage;
+        changed();
     }
 
     public int getDurability() {
@@ -27,10 +32,25 @@ public class Sword extends ItemEntity implements Weapon {
 
     public void setDurability(int durability) {
         this.durability = durability;
+        changed();
     }
 
     public void decreaseDurability() {
         durability = durability - 1;
+        changed();
+    }
+
+    @Override
+    public void save(SaveCodec.Output out) throws IOException {
+        super.save(out);
+        out.writeDouble(damage);
+        out.writeInt(durability);
     }
 
-}
\ No newline at end of file
+    @Override
+    public void load(SaveCodec.Input in) throws IOException {
+        super.load(in);
+        damage = in.readDouble();
+        durability = in.readInt();
+    }
+}
@@ -240,7 +240,7 @@ public class AssassinTests {
         entities.add(wall2);
         entities.add(wall3);
 
-        assertEquals(initialPosAssassin.translateBy(Direction.RIGHT), assassin.dijkstraSearch(dungeon, entities, initialPosAssassin, initialPosPlayer));
+        assertEquals(initialPosAssassin.translateBy(Direction.RIGHT), assassin.shortestPathSearch(dungeon, entities, initialPosAssassin, initialPosPlayer));
 
         // assassin should move to right instead of moving to the left
         assassin.move(entities, dungeon);
@@ -0,0 +1,75 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.simulation.BatchRunner;
+import dungeonmania.simulation.SimulationJob;
+import dungeonmania.simulation.SimulationResult;
+import dungeonmania.simulation.SimulationResult.Outcome;
+import dungeonmania.util.Direction;
+
+public class BatchRunnerTest {
+
+    @Test
+    @DisplayName("Test games played in parallel each end the way they would on their own")
+    public void testParallelGames() throws IOException {
+        List<Action> toExit = List.of(Action.move(Direction.DOWN), Action.move(Direction.DOWN), Action.move(Direction.DOWN));
+        List<SimulationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            jobs.add(SimulationJob.load("d_movementTest_testMovementDown", "c_movementTest_testMovementDown", toExit, i));
+            jobs.add(SimulationJob.load("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies",
+                    List.of(Action.parse("move RIGHT"), Action.parse("move RIGHT")), i));
+            jobs.add(SimulationJob.load("d_movementTest_testMovementDown", "c_movementTest_testMovementDown",
+                    List.of(Action.build("bow")), i));
+        }
+
+        List<SimulationResult> results;
+        try (BatchRunner runner = new BatchRunner(4)) {
+            results = runner.runAll(jobs);
+        }
+
+        assertEquals(jobs.size(), results.size());
+        for (int i = 0; i < jobs.size(); i += 3) {
+            // the game stops once the exit is reached
+            assertEquals(Outcome.WON, results.get(i).getOutcome());
+            assertEquals(2, results.get(i).getTicks());
+
+            assertEquals(Outcome.LOST, results.get(i + 1).getOutcome());
+            assertEquals(1, results.get(i + 1).getTicks());
+            assertEquals(1, results.get(i + 1).getBattles().size());
+
+            assertEquals(Outcome.FAILED, results.get(i + 2).getOutcome());
+            assertNotNull(results.get(i + 2).getError());
+        }
+    }
+
+    @Test
+    @DisplayName("Test every result is streamed once")
+    public void testStreamedResults() throws IOException {
+        List<SimulationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            jobs.add(SimulationJob.load("d_movementTest_testMovementDown", "c_movementTest_testMovementDown",
+                    List.of(Action.move(Direction.DOWN)), i));
+        }
+
+        List<SimulationResult> streamed = new ArrayList<>();
+        try (BatchRunner runner = new BatchRunner()) {
+            runner.run(jobs, streamed::add);
+        }
+
+        assertEquals(jobs.size(), streamed.size());
+        for (SimulationJob job: jobs) {
+            assertTrue(streamed.stream().anyMatch(result -> result.getJob() == job));
+        }
+        assertTrue(streamed.stream().allMatch(result -> result.getOutcome() == Outcome.UNFINISHED));
+    }
+}
@@ -281,6 +281,29 @@ public class BattleAllyBonusTest {
         assertEquals(playerHealth, player.getHealth());
     }
 
+    @Test
+    @DisplayName("Test enemies join and leave the allies as they change sides")
+    public void testAlliesFollowSideChanges() {
+        Dungeon dungeon = new Dungeon();
+        Position initialPos = new Position(2, 1);
+        Mercenary merc = new Mercenary(initialPos, 10, 10, 0, 0, 2, 5, "mercenary");
+        Mercenary other = new Mercenary(initialPos, 10, 10, 0, 0, 2, 5, "mercenary");
+        dungeon.addEnemy(merc);
+        dungeon.addEnemy(other);
+        assertTrue(dungeon.getAlliesList().isEmpty());
+
+        merc.setHostile(false);
+        assertEquals(List.of(merc), List.copyOf(dungeon.getAlliesList()));
+
+        // mind control wearing off
+        merc.setHostile(true);
+        assertTrue(dungeon.getAlliesList().isEmpty());
+
+        other.setHostile(false);
+        dungeon.removeEnemy(other);
+        assertTrue(dungeon.getAlliesList().isEmpty());
+    }
+
     /* INTEGRATION TESTS */
     // bribe finished
     @Test
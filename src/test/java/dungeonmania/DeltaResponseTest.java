@@ -0,0 +1,61 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.response.models.DungeonDeltaResponse;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class DeltaResponseTest {
+
+    @Test
+    @DisplayName("Test a delta only holds the entities that changed since the client's version")
+    public void testDeltaHoldsChanges() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        DungeonResponse initial = dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies");
+        DungeonDeltaResponse full = dmc.getDungeonDelta(-1);
+        assertTrue(full.isFull());
+        assertEquals(initial.getEntities().size(), full.getAdded().size());
+
+        // walls and the exit never move, only the player and mercenary can change
+        DungeonDeltaResponse delta = dmc.getDungeonDelta(dmc.tick(Direction.UP), full.getVersion());
+        assertFalse(delta.isFull());
+        assertEquals(full.getVersion(), delta.getBaseVersion());
+        assertTrue(delta.getAdded().isEmpty());
+        assertTrue(delta.getChanged().size() <= 2);
+        assertTrue(delta.getChanged().stream().anyMatch(entity -> entity.getType().equals("player")
+                && entity.getPosition().equals(new Position(0, 0))));
+        assertNull(delta.getBattles());
+
+        // nothing changes when nothing happens
+        DungeonDeltaResponse unchanged = dmc.getDungeonDelta(delta.getVersion());
+        assertTrue(unchanged.getChanged().isEmpty());
+        assertTrue(unchanged.getRemoved().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test removed entities are reported and unknown versions fall back to a full resync")
+    public void testRemovedAndResync() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies");
+        DungeonDeltaResponse first = dmc.getDungeonDelta(-1);
+
+        // the player walks into the mercenary and dies
+        DungeonDeltaResponse delta = dmc.getDungeonDelta(dmc.tick(Direction.RIGHT), first.getVersion());
+        String playerId = first.getAdded().stream().filter(entity -> entity.getType().equals("player"))
+                .findFirst().get().getId();
+        assertTrue(delta.getRemoved().contains(playerId));
+        assertEquals(1, delta.getBattles().size());
+
+        DungeonDeltaResponse resync = dmc.getDungeonDelta(delta.getVersion() + 100);
+        assertTrue(resync.isFull());
+        assertTrue(resync.getRemoved().isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import dungeonmania.util.Direction;
+
+public class DungeonResponseWriterTest {
+
+    private static JsonElement streamed(Gson gson, DungeonManiaController dmc) throws IOException {
+        StringWriter text = new StringWriter();
+        JsonWriter out = gson.newJsonWriter(text);
+        dmc.writeDungeonResponseModel(out);
+        out.flush();
+        return JsonParser.parseString(text.toString());
+    }
+
+    @Test
+    @DisplayName("Test the streamed game is the same JSON Gson makes of the response")
+    public void testSameAsGson() throws Exception {
+        Gson gson = new Gson();
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies");
+        assertEquals(JsonParser.parseString(gson.toJson(dmc.getDungeonResponseModel())), streamed(gson, dmc));
+
+        // after a battle, with the player gone
+        dmc.tick(Direction.RIGHT);
+        assertEquals(JsonParser.parseString(gson.toJson(dmc.getDungeonResponseModel())), streamed(gson, dmc));
+    }
+
+    @Test
+    @DisplayName("Test the streamed game matches Gson with an inventory and buildables")
+    public void testInventory() throws Exception {
+        Gson gson = new Gson();
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_buildMovement", "c_movementTest_testMovementDown");
+        for (int i = 0; i < 4; i++) {
+            dmc.tick(Direction.DOWN);
+        }
+        assertEquals(JsonParser.parseString(gson.toJson(dmc.getDungeonResponseModel())), streamed(gson, dmc));
+    }
+}
@@ -0,0 +1,61 @@
+package dungeonmania;
+
+import dungeonmania.enemy.Spider;
+import dungeonmania.entities.*;
+import dungeonmania.util.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DungeonViewsTest {
+
+    @Test
+    @DisplayName("Test the entity getters are read only views that follow the game")
+    public void testLiveViews() {
+        Dungeon dungeon = new Dungeon();
+        List<Entity> entities = dungeon.getEntities();
+        assertSame(entities, dungeon.getEntities());
+
+        Entity wall = new Wall(new Position(0, 0), "wall");
+        dungeon.addEntity(wall);
+        dungeon.addEntity(null);
+        assertEquals(List.of(wall), entities);
+        assertThrows(UnsupportedOperationException.class, () -> entities.add(wall));
+
+        dungeon.removeEntity(wall);
+        assertTrue(entities.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a new game holds no nulls")
+    public void testNoNulls() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryMercenaryDies");
+        Dungeon dungeon = dmc.getDungeon();
+        assertFalse(dungeon.getEntities().contains(null));
+        assertFalse(dungeon.getEnemies().contains(null));
+        assertFalse(dungeon.getItems().contains(null));
+    }
+
+    @Test
+    @DisplayName("Test an enemy can kill the player while walking the entities")
+    public void testBattleWhileMoving() {
+        Dungeon dungeon = new Dungeon();
+        Player player = new Player(new Position(1, 0), 0.1, 0.1, "player");
+        dungeon.setPlayer(player);
+        dungeon.addEntity(new Wall(new Position(5, 5), "wall"));
+        dungeon.addEntity(new Wall(new Position(6, 5), "wall"));
+        dungeon.addEnemy(new Spider(new Position(1, 1), 10, 10, "spider"));
+
+        dungeon.non_player_acions();
+        assertFalse(dungeon.getEntities().contains(player));
+        assertEquals(1, dungeon.getBattles().size());
+    }
+}
@@ -0,0 +1,33 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.response.models.EntityResponse;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class EntityResponseTest {
+
+    private static EntityResponse first(DungeonResponse res, String type) {
+        return res.getEntities().stream().filter(entity -> entity.getType().equals(type)).findFirst().get();
+    }
+
+    @Test
+    @DisplayName("Test entities that do not change keep their response and moved ones get a new one")
+    public void testCachedResponses() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        DungeonResponse before = dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies");
+        DungeonResponse after = dmc.tick(Direction.UP);
+
+        assertSame(first(before, "wall"), first(after, "wall"));
+        assertSame(first(before, "exit"), first(after, "exit"));
+        assertNotSame(first(before, "player"), first(after, "player"));
+        assertEquals(new Position(0, 0), first(after, "player").getPosition());
+    }
+}
@@ -0,0 +1,61 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.util.LruCache;
+
+public class GameConfigTest {
+
+    @Test
+    @DisplayName("Test configs and dungeons are parsed once and shared")
+    public void testCachedConfig() throws IOException {
+        GameConfig config = GameConfig.load("c_movementTest_testMovementDown");
+        assertSame(config, GameConfig.load("c_movementTest_testMovementDown"));
+        assertEquals(10, config.getPlayerHealth());
+        assertEquals(5.0, config.getZombieHealth());
+        assertEquals(Dungeon.DEFAULT_HISTORY_CAPACITY, config.getHistoryCapacity());
+        assertEquals(8, GameConfig.load("c_rewindTest_smallHistory").getHistoryCapacity());
+
+        DungeonTemplate template = DungeonTemplate.load("d_complexGoalsTest_2Ands");
+        assertSame(template, DungeonTemplate.load("d_complexGoalsTest_2Ands"));
+        assertEquals("AND", template.getGoal());
+    }
+
+    @Test
+    @DisplayName("Test a config missing a value is rejected")
+    public void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.parse("empty", new JSONObject()));
+    }
+
+    @Test
+    @DisplayName("Test a missing value for a newer entity is only rejected when it is used")
+    public void testMissingOptionalValue() throws IOException {
+        GameConfig config = GameConfig.load("bomb_radius_2");
+        assertEquals(2, config.getBombRadius());
+        assertThrows(IllegalArgumentException.class, () -> config.getHydraAttack());
+        assertThrows(IllegalArgumentException.class, () -> config.getMindControlDuration());
+    }
+
+    @Test
+    @DisplayName("Test the least recently used entry is evicted")
+    public void testLruEviction() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,83 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class GameSessionTest {
+
+    @Test
+    @DisplayName("Test commands queued back to back are applied as one batch")
+    public void testBatchedCommands() throws Exception {
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        GameSession session = new GameSession(new DungeonManiaController(), threads);
+        session.ask(dmc -> dmc.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown"))
+                .get(10, TimeUnit.SECONDS);
+
+        // hold the consumer so the commands pile up in the mailbox
+        CountDownLatch release = new CountDownLatch(1);
+        session.ask(dmc -> awaitQuietly(release));
+        CompletableFuture<DungeonResponse> first = session.send(Action.move(Direction.DOWN));
+        CompletableFuture<DungeonResponse> invalid = session.send(Action.build("bow"));
+        CompletableFuture<DungeonResponse> last = session.send(Action.move(Direction.DOWN));
+        release.countDown();
+
+        DungeonResponse res = last.get(10, TimeUnit.SECONDS);
+        assertSame(res, first.get(10, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> invalid.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof InvalidActionException);
+        assertEquals(new Position(1, 3), TestUtils.getPlayer(res).get().getPosition());
+
+        // the consumer may still be finishing its turn once the futures complete
+        threads.shutdown();
+        assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(session.tryClose());
+        assertThrows(IllegalStateException.class, () -> session.send(Action.move(Direction.UP)));
+    }
+
+    @Test
+    @DisplayName("Test an Error thrown by a request fails only that request")
+    public void testErrorInRequest() throws Exception {
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        GameSession session = new GameSession(new DungeonManiaController(), threads);
+        CompletableFuture<Object> failed = session.ask(dmc -> {
+            throw new StackOverflowError();
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof StackOverflowError);
+
+        // the session still takes and runs messages afterwards
+        session.ask(dmc -> dmc.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown"))
+                .get(10, TimeUnit.SECONDS);
+        DungeonResponse res = session.send(Action.move(Direction.DOWN)).get(10, TimeUnit.SECONDS);
+        assertEquals(new Position(1, 2), TestUtils.getPlayer(res).get().getPosition());
+
+        threads.shutdown();
+        assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(session.tryClose());
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -9,9 +9,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import dungeonmania.goals.AndGoal;
+import dungeonmania.goals.GoalEvent;
+import dungeonmania.goals.LeafGoal;
 import dungeonmania.response.models.DungeonResponse;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
@@ -329,4 +335,63 @@ public class GoalTest {
         assertEquals("", getGoals(res));
     }
 
+    @Test
+    @DisplayName("Test goals are only looked at again after an event they depend on")
+    public void testCachedGoals() {
+        Dungeon dungeon = new Dungeon();
+        CountingGoal treasure = new CountingGoal(GoalEvent.ITEM_COLLECTED);
+        CountingGoal enemies = new CountingGoal(GoalEvent.ENEMY_KILLED);
+        AndGoal goal = new AndGoal(dungeon, new ArrayList<>(List.of(treasure, enemies)));
+
+        assertEquals("(:counting AND :counting)", goal.getType());
+        assertFalse(goal.isFinished(dungeon));
+        goal.getType();
+        goal.isFinished(dungeon);
+        assertEquals(1, treasure.evaluations);
+
+        // an event neither subgoal depends on changes nothing
+        assertFalse(goal.onEvent(GoalEvent.SWITCH_TOGGLED));
+        treasure.finished = true;
+        assertFalse(goal.isFinished(dungeon));
+        assertEquals(1, treasure.evaluations);
+
+        assertTrue(goal.onEvent(GoalEvent.ITEM_COLLECTED));
+        assertEquals("(:counting)", goal.getType());
+        assertEquals(2, treasure.evaluations);
+        assertEquals(1, enemies.evaluations);
+    }
+
+    private static class CountingGoal extends LeafGoal {
+        private boolean finished = false;
+        private int evaluations = 0;
+        private final GoalEvent dependsOn;
+
+        CountingGoal(GoalEvent dependsOn) {
+            this.dependsOn = dependsOn;
+        }
+
+        @Override
+        protected GoalEvent dependsOn() {
+            return dependsOn;
+        }
+
+        @Override
+        protected boolean evaluate(Dungeon dungeon) {
+            evaluations++;
+            return finished;
+        }
+
+        @Override
+        public String getType() {
+            return ":counting";
+        }
+
+        @Override
+        public void save(SaveCodec.Output out) {
+        }
+
+        @Override
+        public void load(SaveCodec.Input in) {
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package dungeonmania;
+
+import dungeonmania.util.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistoryBufferTest {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Test
+    @DisplayName("Entries pushed out of memory are read back from the archive")
+    public void testArchivedEntries() {
+        HistoryBuffer<Direction> buffer = new HistoryBuffer<>(4);
+        for (int tick = 0; tick < 100; tick++) {
+            buffer.put(tick, DIRECTIONS[tick % DIRECTIONS.length]);
+        }
+        for (int tick = 0; tick < 100; tick++) {
+            assertEquals(DIRECTIONS[tick % DIRECTIONS.length], buffer.get(tick));
+        }
+        assertNull(buffer.get(100));
+        assertFalse(buffer.contains(-1));
+
+        // overwriting an archived tick, e.g. after a rewind, replaces it
+        buffer.put(10, Direction.UP);
+        buffer.put(11, Direction.UP);
+        assertEquals(Direction.UP, buffer.get(10));
+        assertEquals(Direction.UP, buffer.get(11));
+        assertEquals(DIRECTIONS[98 % DIRECTIONS.length], buffer.get(98));
+    }
+
+    @Test
+    @DisplayName("Archived entries are kept when the buffer is serialised")
+    @SuppressWarnings("unchecked")
+    public void testSerialisation() throws IOException, ClassNotFoundException {
+        HistoryBuffer<Direction> buffer = new HistoryBuffer<>(3);
+        for (int tick = 0; tick < 20; tick += 2) {
+            buffer.put(tick, DIRECTIONS[tick % DIRECTIONS.length]);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(buffer);
+        }
+        HistoryBuffer<Direction> copy;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (HistoryBuffer<Direction>) input.readObject();
+        }
+
+        for (int tick = 0; tick < 20; tick++) {
+            assertEquals(buffer.get(tick), copy.get(tick));
+        }
+    }
+
+    @Test
+    @DisplayName("Replaced archived entries do not grow the archive forever")
+    public void testCompaction() {
+        HistoryBuffer<Direction> buffer = new HistoryBuffer<>(2);
+        for (int round = 0; round < 500; round++) {
+            for (int tick = 0; tick < 20; tick++) {
+                buffer.put(tick, DIRECTIONS[(tick + round) % DIRECTIONS.length]);
+            }
+        }
+        assertTrue(buffer.getArchiveSize() < 256 * 1024);
+        for (int tick = 0; tick < 20; tick++) {
+            assertEquals(DIRECTIONS[(tick + 499) % DIRECTIONS.length], buffer.get(tick));
+        }
+        buffer.close();
+    }
+
+    @Test
+    @DisplayName("Closing deletes the archive but keeps the entries in memory")
+    public void testClose() {
+        HistoryBuffer<Direction> buffer = new HistoryBuffer<>(4);
+        for (int tick = 0; tick < 10; tick++) {
+            buffer.put(tick, DIRECTIONS[tick % DIRECTIONS.length]);
+        }
+        assertTrue(buffer.getArchiveSize() > 0);
+        buffer.close();
+        assertEquals(0, buffer.getArchiveSize());
+        assertNull(buffer.get(0));
+        assertEquals(DIRECTIONS[9 % DIRECTIONS.length], buffer.get(9));
+
+        // a closed buffer archives again if it is still used
+        buffer.put(10, Direction.UP);
+        assertEquals(DIRECTIONS[6 % DIRECTIONS.length], buffer.get(6));
+        buffer.close();
+        buffer.close();
+    }
+}
@@ -369,7 +369,7 @@ public class MercenaryTests {
         entities.add(wall2);
         entities.add(wall3);
 
-        assertEquals(initialPosMercenary.translateBy(Direction.RIGHT), mercenary.dijkstraSearch(dungeon, entities, initialPosMercenary, initialPosPlayer));
+        assertEquals(initialPosMercenary.translateBy(Direction.RIGHT), mercenary.shortestPathSearch(dungeon, entities, initialPosMercenary, initialPosPlayer));
 
         // Mercenary should move to right instead of moving to the left
         mercenary.move(entities, dungeon);
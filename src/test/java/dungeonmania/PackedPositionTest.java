@@ -0,0 +1,51 @@
+package dungeonmania;
+
+import dungeonmania.util.PackedPosition;
+import dungeonmania.util.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PackedPositionTest {
+
+    @Test
+    @DisplayName("Test positions survive being packed, including negative coordinates and layers")
+    public void testRoundTrip() {
+        int[] values = {0, 1, -1, 7, -42, (1 << 23) - 1, -(1 << 23)};
+        for (int x: values) {
+            for (int y: values) {
+                long packed = PackedPosition.pack(x, y, -3);
+                assertEquals(x, PackedPosition.getX(packed));
+                assertEquals(y, PackedPosition.getY(packed));
+                assertEquals(-3, PackedPosition.getLayer(packed));
+                assertEquals(new Position(x, y), PackedPosition.toPosition(packed));
+            }
+        }
+        Position position = new Position(-5, 9, 2);
+        assertEquals(position, PackedPosition.toPosition(position.pack()));
+        assertEquals(PackedPosition.pack(-5, 9), PackedPosition.cell(position.pack()));
+        assertEquals(PackedPosition.pack(-4, 7, 2), PackedPosition.translate(position.pack(), 1, -2));
+    }
+
+    @Test
+    @DisplayName("Test packed neighbours come in the same order as Position's")
+    public void testNeighbours() {
+        Position position = new Position(3, -2);
+        List<Position> adjacent = position.getAdjacentPositions();
+        for (int i = 0; i < 8; i++) {
+            assertEquals(adjacent.get(i), PackedPosition.toPosition(PackedPosition.adjacent(position.pack(), i)));
+        }
+        List<Position> cardinal = position.getCardinallyAdjacentPositions();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(cardinal.get(i), PackedPosition.toPosition(PackedPosition.cardinal(position.pack(), i)));
+        }
+
+        assertTrue(PackedPosition.isWithin(position.pack(), PackedPosition.pack(5, 0), 2));
+        assertFalse(PackedPosition.isWithin(position.pack(), PackedPosition.pack(6, -2), 2));
+    }
+}
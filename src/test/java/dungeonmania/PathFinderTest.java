@@ -0,0 +1,84 @@
+package dungeonmania;
+
+import dungeonmania.enemy.Mercenary;
+import dungeonmania.entities.*;
+import dungeonmania.pathing.DistanceField;
+import dungeonmania.pathing.PathFinder;
+import dungeonmania.pathing.PathGrid;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PathFinderTest {
+
+    @Test
+    @DisplayName("Test mercenary chases a player further away than the old search window")
+    public void testChaseAcrossLargeMap() {
+        Dungeon dungeon = new Dungeon();
+        Position initialPosMercenary = new Position(0, 0);
+        Mercenary mercenary = new Mercenary(initialPosMercenary, 10, 10, 2, 0, 0, 0, "mercenary");
+        Player player = new Player(new Position(40, 0), 0, 2, "player");
+
+        // a wall in the way forces the mercenary to go down and around
+        List<Entity> entities = new ArrayList<>();
+        entities.add(mercenary);
+        entities.add(player);
+        entities.add(new Wall(new Position(1, 0), "wall"));
+        entities.add(new Wall(new Position(1, -1), "wall"));
+
+        mercenary.move(entities, dungeon);
+        assertEquals(initialPosMercenary.translateBy(Direction.DOWN), mercenary.getPosition());
+    }
+
+    @Test
+    @DisplayName("Test no step is returned when the target is walled in")
+    public void testUnreachableTarget() {
+        Position source = new Position(0, 0);
+        Position target = new Position(5, 5);
+        List<Entity> entities = new ArrayList<>();
+        for (Position p: target.getCardinallyAdjacentPositions()) {
+            entities.add(new Wall(p, "wall"));
+        }
+
+        PathGrid grid = new PathGrid(entities, e -> e instanceof Wall, source, target);
+        assertNull(PathFinder.nextStep(grid, source, target));
+        assertNull(PathFinder.nextStep(grid, target, target));
+    }
+
+    @Test
+    @DisplayName("Test equal cost paths prefer up, right, down then left")
+    public void testTieBreak() {
+        Position source = new Position(0, 0);
+        Position target = new Position(2, 2);
+        PathGrid grid = new PathGrid(new ArrayList<>(), e -> false, source, target);
+        assertEquals(new Position(1, 0), PathFinder.nextStep(grid, source, target));
+    }
+
+    @Test
+    @DisplayName("Test the shared distance field picks the same steps as a single search")
+    public void testDistanceFieldMatchesSearch() {
+        Position target = new Position(0, 0);
+        List<Entity> entities = new ArrayList<>();
+        entities.add(new Wall(new Position(1, 0), "wall"));
+        entities.add(new Wall(new Position(1, 1), "wall"));
+        entities.add(new Wall(new Position(-1, -1), "wall"));
+        entities.add(new SwampTile(new Position(0, 1), 3, "swamp_tile"));
+
+        Position[] sources = {new Position(3, 0), new Position(0, 3), new Position(-3, -3), new Position(2, 2)};
+        PathGrid fieldGrid = new PathGrid(entities, e -> e instanceof Wall, sources);
+        DistanceField field = new DistanceField(fieldGrid, target);
+        for (Position source: sources) {
+            PathGrid grid = new PathGrid(entities, e -> e instanceof Wall, sources);
+            assertEquals(PathFinder.nextStep(grid, source, target), field.nextStep(source));
+        }
+        assertEquals(4, field.getDistance(new Position(0, 2)));
+        assertNull(field.nextStep(target));
+    }
+}
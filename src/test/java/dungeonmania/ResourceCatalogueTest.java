@@ -0,0 +1,32 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.util.FileLoader;
+import dungeonmania.util.ResourceCatalogue;
+
+public class ResourceCatalogueTest {
+
+    @Test
+    @DisplayName("Test resource names are scanned once and rescanned after invalidation")
+    public void testCachedNames() {
+        List<String> dungeons = ResourceCatalogue.getNames("dungeons");
+        assertTrue(dungeons.contains("d_movementTest_testMovementDown"));
+        assertEquals(FileLoader.listFileNamesInResourceDirectory("dungeons").size(), dungeons.size());
+        assertSame(dungeons, ResourceCatalogue.getNames("dungeons"));
+        assertSame(dungeons, DungeonManiaController.dungeons());
+
+        ResourceCatalogue.invalidate("dungeons");
+        List<String> rescanned = ResourceCatalogue.getNames("dungeons");
+        assertNotSame(dungeons, rescanned);
+        assertEquals(dungeons, rescanned);
+    }
+}
@@ -1,14 +1,26 @@
 package dungeonmania;
 
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.items.InvinciblePotion;
+import dungeonmania.items.Potion;
 import dungeonmania.response.models.DungeonResponse;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
+import dungeonmania.weapon.Sword;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import static dungeonmania.TestUtils.getEntities;
 import static dungeonmania.TestUtils.getInventory;
@@ -481,4 +493,105 @@ public class RewindTest {
         assertEquals(0, getInventory(res, "bomb").size());
     }
 
+
+    @Test
+    @DisplayName("TestRewindPastKeyframe")
+    public void TestRewindPastKeyframe() {
+        DungeonManiaController controller = new DungeonManiaController();
+        DungeonResponse res = controller.newGame("d_timeturner", "c_movementTest_testMovementDown");
+        List<Position> positions = new ArrayList<>();
+        positions.add(getEntities(res, "player").get(0).getPosition());
+        for (int i = 0; i < 25; i++) {
+            res = controller.tick(i % 2 == 0 ? Direction.RIGHT : Direction.LEFT);
+            positions.add(getEntities(res, "player").get(0).getPosition());
+        }
+
+        // rewinds to the state after 2 ticks, restored from deltas recorded on top of the first keyframe
+        res = controller.rewind(23);
+        assertEquals(positions.get(2), getEntities(res, "older_player").get(0).getPosition());
+        assertEquals(positions.get(25), getEntities(res, "player").get(0).getPosition());
+        assertEquals(0, getEntities(res, "time_turner").size());
+        assertEquals(1, getInventory(res, "time_turner").size());
+
+        // playing on after the rewind does not change the recorded history
+        controller.tick(Direction.DOWN);
+        res = controller.rewind(1);
+        assertEquals(positions.get(2), getEntities(res, "older_player").get(0).getPosition());
+    }
+
+    @Test
+    @DisplayName("TestRewindFromArchivedHistory")
+    public void TestRewindFromArchivedHistory() {
+        DungeonManiaController controller = new DungeonManiaController();
+        // only 8 ticks of history are kept in memory, the rest are archived
+        DungeonResponse res = controller.newGame("d_timeturner", "c_rewindTest_smallHistory");
+        List<Position> positions = new ArrayList<>();
+        positions.add(getEntities(res, "player").get(0).getPosition());
+        for (int i = 0; i < 25; i++) {
+            res = controller.tick(i % 2 == 0 ? Direction.RIGHT : Direction.LEFT);
+            positions.add(getEntities(res, "player").get(0).getPosition());
+        }
+
+        res = controller.rewind(23);
+        assertEquals(positions.get(2), getEntities(res, "older_player").get(0).getPosition());
+        assertEquals(1, getInventory(res, "time_turner").size());
+
+        // the older player replays its archived movements
+        res = controller.tick(Direction.DOWN);
+        assertEquals(positions.get(3), getEntities(res, "older_player").get(0).getPosition());
+    }
+
+    @Test
+    @DisplayName("Test every change to an entity is kept in the history, not just its position and health")
+    public void testHistoryKeepsAllFields() {
+        StateJournal journal = new StateJournal(8);
+        Player player = new Player(new Position(0, 0), 1, 10, "player");
+        Potion first = new InvinciblePotion(new Position(0, 0), "invincibility_potion", 3);
+        Potion second = new InvinciblePotion(new Position(0, 0), "invincibility_potion", 3);
+        first.setId("1");
+        second.setId("2");
+        player.addPotionToQueue(first);
+        List<Entity> entities = List.of(player);
+        journal.record(entities, List.of(), List.of(), List.of(), List.of());
+
+        // same position, health and inventory size, but a different potion
+        player.getPotionQueue().set(0, second);
+        player.setActivePotion(second);
+        journal.record(entities, List.of(), List.of(), List.of(), List.of());
+
+        Player before = restoredPlayer(journal, 0);
+        assertEquals(first.getId(), before.getPotionQueue().get(0).getId());
+        assertNull(before.getActivePotion());
+        Player after = restoredPlayer(journal, 1);
+        assertEquals(second.getId(), after.getPotionQueue().get(0).getId());
+        assertSame(after.getPotionQueue().get(0), after.getActivePotion());
+    }
+
+    @Test
+    @DisplayName("Test a change inside an item the player holds is kept in the history")
+    public void testHistoryKeepsItemState() {
+        StateJournal journal = new StateJournal(8);
+        Player player = new Player(new Position(0, 0), 1, 10, "player");
+        Sword sword = new Sword(new Position(0, 0), 2, 3, "sword");
+        player.addItem(sword);
+        player.addWeapon(sword);
+        List<Entity> entities = List.of(player);
+        journal.record(entities, List.of(), List.of(), List.of(), List.of());
+
+        sword.decreaseDurability();
+        journal.record(entities, List.of(), List.of(), List.of(), List.of());
+        sword.decreaseDurability();
+
+        Player before = restoredPlayer(journal, 0);
+        Sword restored = (Sword) before.getInventory().get(0);
+        assertEquals(3, restored.getDurability());
+        assertNotSame(sword, restored);
+        assertSame(restored, before.getWeapons().get(0));
+        assertEquals(2, ((Sword) restoredPlayer(journal, 1).getInventory().get(0)).getDurability());
+    }
+
+    private static Player restoredPlayer(StateJournal journal, int tick) {
+        HashMap<String, List<Object>> state = journal.restore(tick);
+        return (Player) state.get("entities").get(0);
+    }
 }
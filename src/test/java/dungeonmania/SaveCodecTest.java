@@ -0,0 +1,128 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.json.JSONObject;
+
+import dungeonmania.enemy.Enemy;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.util.Direction;
+import dungeonmania.util.FileLoader;
+import dungeonmania.util.Position;
+
+public class SaveCodecTest {
+
+    private Object roundTrip(Saveable value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SaveCodec.write(value, bytes);
+        return SaveCodec.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Test a dungeon keeps its entities and shared references through the binary format")
+    public void testDungeonRoundTrip() throws IOException, ClassNotFoundException {
+        Dungeon original = new Dungeon();
+        original.createNewDungeon(new JSONObject(FileLoader.loadResourceFile("dungeons/d_complexGoalsTest_2Ands.json")),
+                new JSONObject(FileLoader.loadResourceFile("configs/c_movementTest_testMovementDown.json")));
+        // collect the treasure
+        original.getPlayer().move(original, Direction.RIGHT);
+
+        Dungeon dungeon = (Dungeon) roundTrip(original);
+        dungeon.restoreTransientState();
+
+        Player player = dungeon.getPlayer();
+        assertTrue(dungeon.getEntities().contains(player));
+        assertEquals(original.getPlayer().getPosition(), player.getPosition());
+        assertEquals(original.getPlayer().getId(), player.getId());
+        assertEquals(1, player.getInventory().size());
+        assertEquals(original.getEntities().size(), dungeon.getEntities().size());
+        assertEquals(original.getEnemies().get(0).getPosition(), dungeon.getEnemies().get(0).getPosition());
+        assertTrue(dungeon.getEntitiesAt(player.getPosition()).contains(player));
+        assertEquals(original.getGoals(), dungeon.getGoals());
+    }
+
+    @Test
+    @DisplayName("Test a save written by the first release with Java serialisation still loads")
+    public void testLoadJavaSerialisedSave() throws IOException, ClassNotFoundException {
+        Dungeon dungeon;
+        try (InputStream input = getClass().getResourceAsStream("/legacy_saves/advanced.json")) {
+            dungeon = (Dungeon) SerializationUtils.deserialization(input);
+        }
+        dungeon.restoreTransientState();
+
+        assertEquals("(:enemies AND :treasure)", dungeon.getGoals());
+        assertEquals(117, dungeon.getEntities().size());
+        assertEquals(1, dungeon.getEnemies().size());
+        assertEquals(11, dungeon.getItems().size());
+        Player player = dungeon.getPlayer();
+        assertEquals("21", player.getId());
+        assertEquals(new Position(4, 2), player.getPosition());
+        assertEquals(List.of("invincibility_potion", "invisibility_potion"),
+                player.getInventory().stream().map(Entity::getType).collect(Collectors.toList()));
+        assertEquals(List.of("1", "2"), player.getInventory().stream().map(Entity::getId).collect(Collectors.toList()));
+        Enemy mercenary = dungeon.getEnemies().get(0);
+        assertEquals("mercenary", mercenary.getType());
+        assertEquals("45", mercenary.getId());
+        assertEquals(new Position(3, 1), mercenary.getPosition());
+        assertTrue(dungeon.getItemsAt(new Position(6, 1)).stream().anyMatch(e -> e.getType().equals("sword")));
+        assertTrue(dungeon.getItemsAt(new Position(7, 10)).stream().anyMatch(e -> e.getType().equals("treasure")));
+        assertTrue(dungeon.getBattles().isEmpty());
+        assertTrue(dungeon.getBuildables().isEmpty());
+
+        // and is saved again in the binary format
+        Dungeon copy = (Dungeon) roundTrip(dungeon);
+        copy.restoreTransientState();
+        assertEquals(dungeon.getGoals(), copy.getGoals());
+        assertEquals(dungeon.getEntities().size(), copy.getEntities().size());
+        assertEquals(dungeon.getItems().size(), copy.getItems().size());
+        assertEquals(player.getPosition(), copy.getPlayer().getPosition());
+        assertEquals(dungeon.getHistoryCapacity(), copy.getHistoryCapacity());
+    }
+
+    @Test
+    @DisplayName("Test a Java serialised save holding classes that are not part of a game is rejected")
+    public void testRejectForeignJavaSave() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(new Date());
+        }
+        assertThrows(InvalidClassException.class,
+                () -> SerializationUtils.deserialization(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Test a file that is not a save is rejected")
+    public void testInvalidSave() {
+        assertThrows(IOException.class, () -> SaveCodec.read(new ByteArrayInputStream(new byte[] {'D', 'M'})));
+        assertThrows(IOException.class, () -> SaveCodec.read(new ByteArrayInputStream(new byte[] {'D', 'M', 'S', 'V', 1, 99})));
+        // a type that is not in the table
+        assertThrows(InvalidClassException.class,
+                () -> SaveCodec.read(new ByteArrayInputStream(new byte[] {'D', 'M', 'S', 'V', SaveCodec.VERSION, 2, 127})));
+        assertTrue(SaveCodec.isSaveCodecHeader(new byte[] {'D', 'M', 'S', 'V'}));
+    }
+
+    @Test
+    @DisplayName("Test saves from before the encoders or from a newer game are rejected")
+    public void testUnreadableVersions() {
+        assertThrows(InvalidClassException.class, () -> SaveCodec.read(new ByteArrayInputStream(
+                new byte[] {'D', 'M', 'S', 'V', SaveCodec.OLDEST_VERSION - 1, 0})));
+        assertThrows(InvalidClassException.class, () -> SaveCodec.read(new ByteArrayInputStream(
+                new byte[] {'D', 'M', 'S', 'V', SaveCodec.VERSION + 1, 0})));
+    }
+}
@@ -0,0 +1,109 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SaveStoreTest {
+
+    private byte[] read(SaveStore store, String name) throws IOException {
+        try (InputStream input = store.read(name)) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Test saves are found by full name, saved name and prefix")
+    public void testFindSaves() throws IOException {
+        Path dir = Files.createTempDirectory("save-store");
+        SaveStore store = SaveStore.open(dir.resolve(SaveStore.FILE_NAME));
+        assertEquals(List.of(), store.getNames());
+
+        store.append("maze-100", new byte[] {1, 2, 3});
+        store.append("maze-200", new byte[] {4, 5});
+        store.append("boulders-150", new byte[] {6});
+
+        assertEquals(List.of("maze-100", "maze-200", "boulders-150"), store.getNames());
+        assertEquals("maze-100", store.find("maze-100"));
+        assertEquals("maze-200", store.find("maze"));
+        assertEquals("boulders-150", store.find("boul"));
+        assertNull(store.find("portals"));
+        assertArrayEquals(new byte[] {1, 2, 3}, read(store, "maze-100"));
+        assertArrayEquals(new byte[] {6}, read(store, "boulders-150"));
+        assertNull(store.read("portals-1"));
+    }
+
+    @Test
+    @DisplayName("Test the index is read back from the trailer, or rebuilt from the records without it")
+    public void testReopenStore() throws IOException {
+        Path dir = Files.createTempDirectory("save-store");
+        SaveStore store = SaveStore.open(dir.resolve(SaveStore.FILE_NAME));
+        store.append("maze-100", new byte[] {1, 2, 3});
+        store.append("maze-200", new byte[] {4, 5});
+
+        // a copy of the file is opened from its trailer
+        Path copy = dir.resolve("copy.store");
+        Files.copy(dir.resolve(SaveStore.FILE_NAME), copy);
+        SaveStore reopened = SaveStore.open(copy);
+        assertEquals(List.of("maze-100", "maze-200"), reopened.getNames());
+        assertArrayEquals(new byte[] {4, 5}, read(reopened, "maze-200"));
+
+        // cut the trailer off, as if the game stopped while saving
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        assertEquals(List.of("maze-100", "maze-200"), reopened.getNames());
+        reopened.append("maze-300", new byte[] {7});
+        assertEquals(List.of("maze-100", "maze-200", "maze-300"), reopened.getNames());
+        assertArrayEquals(new byte[] {7}, read(reopened, "maze-300"));
+        assertArrayEquals(new byte[] {1, 2, 3}, read(reopened, "maze-100"));
+    }
+
+    @Test
+    @DisplayName("Test saves made after the last index checkpoint are found when the store is reopened")
+    public void testCheckpoints() throws IOException {
+        Path dir = Files.createTempDirectory("save-store");
+        SaveStore store = SaveStore.open(dir.resolve(SaveStore.FILE_NAME));
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            names.add("maze-" + i);
+            store.append("maze-" + i, new byte[] {(byte) i});
+        }
+
+        Path copy = dir.resolve("copy.store");
+        Files.copy(dir.resolve(SaveStore.FILE_NAME), copy);
+        SaveStore reopened = SaveStore.open(copy);
+        assertEquals(names, reopened.getNames());
+        assertArrayEquals(new byte[] {(byte) 149}, read(reopened, "maze-149"));
+        assertArrayEquals(new byte[] {(byte) 40}, read(reopened, "maze-40"));
+
+        // without the trailer the records are scanned past the checkpoints
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        assertEquals(names, reopened.getNames());
+        for (int i = 150; i < 200; i++) {
+            names.add("maze-" + i);
+            reopened.append("maze-" + i, new byte[] {(byte) i});
+        }
+        assertEquals(names, reopened.getNames());
+        Path other = dir.resolve("other.store");
+        Files.copy(copy, other);
+        SaveStore again = SaveStore.open(other);
+        assertEquals(names, again.getNames());
+        assertArrayEquals(new byte[] {(byte) 199}, read(again, "maze-199"));
+        assertArrayEquals(new byte[] {(byte) 7}, read(again, "maze-7"));
+    }
+}
@@ -0,0 +1,86 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.Direction;
+import dungeonmania.util.SeededRandom;
+
+public class SeededGameTest {
+
+    // entity types and positions
+    private static List<String> layout(DungeonResponse res) {
+        return res.getEntities().stream()
+                .map(entity -> entity.getType() + "@" + entity.getPosition().getX() + "," + entity.getPosition().getY())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test games with the same seed spawn and move enemies the same way")
+    public void testSameSeedSameGame() {
+        DungeonManiaController first = new DungeonManiaController();
+        DungeonManiaController second = new DungeonManiaController();
+        DungeonResponse firstRes = first.newGame("zombies", "simple", 1234);
+        DungeonResponse secondRes = second.newGame("zombies", "simple", 1234);
+        Direction[] moves = {Direction.DOWN, Direction.UP};
+        for (int i = 0; i < 40; i++) {
+            firstRes = first.tick(moves[i % 2]);
+            secondRes = second.tick(moves[i % 2]);
+            assertEquals(layout(firstRes), layout(secondRes));
+        }
+        assertTrue(TestUtils.countEntityOfType(firstRes, "zombie_toast") > 0);
+        assertTrue(TestUtils.countEntityOfType(firstRes, "spider") > 0);
+    }
+
+    @Test
+    @DisplayName("Test the same seed generates the same maze")
+    public void testSameSeedSameMaze() {
+        DungeonResponse first = new DungeonManiaController().generateDungeon(0, 0, 15, 15, "simple", 99);
+        DungeonResponse second = new DungeonManiaController().generateDungeon(0, 0, 15, 15, "simple", 99);
+        assertEquals(layout(first), layout(second));
+    }
+
+    @Test
+    @DisplayName("Test every dungeon counts its own ids and never hands one out twice")
+    public void testIdsPerDungeon() {
+        DungeonResponse first = new DungeonManiaController().newGame("zombies", "simple");
+        DungeonManiaController controller = new DungeonManiaController();
+        DungeonResponse second = controller.newGame("zombies", "simple");
+        List<String> ids = second.getEntities().stream().map(entity -> entity.getId()).collect(Collectors.toList());
+        assertEquals(first.getEntities().stream().map(entity -> entity.getId()).collect(Collectors.toList()), ids);
+
+        // spawned zombies get new ids
+        for (int i = 0; i < 20; i++) {
+            second = controller.tick(Direction.DOWN);
+        }
+        List<String> later = second.getEntities().stream().map(entity -> entity.getId()).collect(Collectors.toList());
+        assertTrue(later.size() > ids.size());
+        assertEquals(later.size(), later.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Test split streams are reproducible and stay in range")
+    public void testSplitRandom() {
+        SeededRandom first = new SeededRandom(7);
+        SeededRandom second = new SeededRandom(7);
+        SeededRandom firstChild = first.split();
+        SeededRandom secondChild = second.split();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+            int value = firstChild.nextInt(5);
+            assertEquals(value, secondChild.nextInt(5));
+            assertTrue(value >= 0 && value < 5);
+            double fraction = first.nextDouble();
+            second.nextDouble();
+            assertTrue(fraction >= 0 && fraction < 1);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.util.SerialExecutor;
+
+public class SessionRegistryTest {
+
+    private static final Function<DungeonManiaController, DungeonManiaController> SELF = controller -> controller;
+
+    @Test
+    @DisplayName("Test each session keeps its own game")
+    public void testSessionsAreSeparate() {
+        SessionRegistry registry = new SessionRegistry(10, 60000);
+        DungeonManiaController first = registry.call("a", SELF);
+        assertSame(first, registry.call("a", SELF));
+        assertNotSame(first, registry.call("b", SELF));
+        assertEquals(2, registry.getMetrics().getActiveSessions());
+        assertEquals(2, registry.getMetrics().getCreatedSessions());
+    }
+
+    @Test
+    @DisplayName("Test idle sessions are dropped and the oldest makes room when full")
+    public void testEviction() {
+        AtomicLong now = new AtomicLong();
+        SessionRegistry registry = new SessionRegistry(2, 1000, now::get);
+        DungeonManiaController first = registry.call("a", SELF);
+        now.set(500);
+        registry.call("b", SELF);
+
+        // a is the least recently used once the registry is full
+        now.set(800);
+        registry.call("c", SELF);
+        assertEquals(2, registry.getActiveSessions());
+        assertNotSame(first, registry.call("a", SELF));
+
+        now.set(5000);
+        assertEquals(2, registry.evictIdle());
+        assertEquals(0, registry.getActiveSessions());
+        assertEquals(4, registry.getMetrics().getEvictedSessions());
+        assertEquals(2, registry.getMetrics().getPeakSessions());
+    }
+
+    @Test
+    @DisplayName("Test sessions run in parallel and busy sessions are never dropped")
+    public void testParallelSessions() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        SessionRegistry registry = new SessionRegistry(1, 60000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> registry.call("a", controller -> {
+            started.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }), threads);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // the only session is busy, so there is no room for another
+        assertThrows(IllegalStateException.class, () -> registry.call("b", SELF));
+        assertEquals(1, registry.getMetrics().getRejectedSessions());
+
+        SessionRegistry roomy = new SessionRegistry(10, 60000);
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> roomy.call("x", controller -> awaitBoth(bothRunning)), threads);
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> roomy.call("y", controller -> awaitBoth(bothRunning)), threads);
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertTrue(busy.get(10, TimeUnit.SECONDS));
+        threads.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test requests for a session run in order and a closed session takes no more")
+    public void testSerialRequests() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        SessionRegistry registry = new SessionRegistry(10, 60000, threads);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int request = i;
+            results.add(registry.submit("a", controller -> {
+                order.add(request);
+                return request;
+            }));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, results.get(i).get(10, TimeUnit.SECONDS));
+            assertEquals(i, order.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> registry.call("a", controller -> {
+            throw new IllegalArgumentException("bad request");
+        }));
+
+        SerialExecutor executor = new SerialExecutor(Runnable::run);
+        assertTrue(executor.offer(() -> { }));
+        assertTrue(executor.tryClose());
+        assertFalse(executor.offer(() -> { }));
+        threads.shutdown();
+    }
+
+    private static boolean awaitBoth(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
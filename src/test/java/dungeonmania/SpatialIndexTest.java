@@ -0,0 +1,93 @@
+package dungeonmania;
+
+import dungeonmania.enemy.ZombieToast;
+import dungeonmania.entities.*;
+import dungeonmania.items.*;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpatialIndexTest {
+
+    @Test
+    @DisplayName("Test position lookups follow entities when they move")
+    public void testLookupAfterMove() {
+        Dungeon dungeon = new Dungeon();
+        Player player = new Player(new Position(1, 1), 1, 10, "player");
+        dungeon.setPlayer(player);
+        Entity boulder = new Boulder(new Position(2, 1), "boulder");
+        dungeon.addEntity(boulder);
+
+        assertEquals(boulder, dungeon.getEntity(new Position(2, 1)));
+
+        player.move(dungeon, Direction.RIGHT);
+        assertEquals(player, dungeon.getEntity(new Position(2, 1)));
+        assertEquals(boulder, dungeon.getEntity(new Position(3, 1)));
+        assertEquals(1, dungeon.getEntitiesAt(new Position(2, 1)).size());
+        assertNull(dungeon.getEntity(new Position(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Test entities in a cell keep the order they were added in")
+    public void testCellOrder() {
+        Dungeon dungeon = new Dungeon();
+        Entity floorSwitch = new FloorSwitch(new Position(0, 0), "switch");
+        Entity boulder = new Boulder(new Position(0, 1), "boulder");
+        dungeon.addEntity(floorSwitch);
+        dungeon.addEntity(boulder);
+
+        boulder.setPosition(new Position(0, 0));
+        assertEquals(floorSwitch, dungeon.getEntity(new Position(0, 0)));
+        assertEquals(boulder, dungeon.getEntitiesAt(new Position(0, 0)).get(1));
+    }
+
+    @Test
+    @DisplayName("Test removed and exploded entities leave the index")
+    public void testRemove() {
+        Dungeon dungeon = new Dungeon();
+        Position position = new Position(3, 3);
+        ZombieToast zombie = new ZombieToast(position, 5, 1, "zombie_toast");
+        ItemEntity wood = new Wood(position, "wood");
+        Entity wall = new Wall(position, "wall");
+        dungeon.addEnemy(zombie);
+        dungeon.addItem(wood);
+        dungeon.addEntity(wall);
+
+        dungeon.explode(position);
+        assertTrue(dungeon.getEntitiesAt(position).isEmpty());
+        assertNull(dungeon.getEnemy(position));
+        assertNull(dungeon.getItemEntity(position));
+    }
+
+    @Test
+    @DisplayName("Test many cells stay findable as entities come and go")
+    public void testManyCells() {
+        SpatialIndex<Entity> index = new SpatialIndex<>();
+        List<Entity> walls = new ArrayList<>();
+        for (int x = -20; x < 20; x++) {
+            for (int y = -20; y < 20; y++) {
+                Entity wall = new Wall(new Position(x, y), "wall");
+                walls.add(wall);
+                index.add(wall);
+            }
+        }
+        // remove every other wall so later cells have to be found past the freed ones
+        for (int i = 0; i < walls.size(); i += 2) {
+            index.remove(walls.get(i));
+        }
+        for (int i = 0; i < walls.size(); i++) {
+            Entity wall = walls.get(i);
+            Entity expected = i % 2 == 0 ? null : wall;
+            assertEquals(expected, index.getFirstAt(wall.getPosition()));
+            assertEquals(expected, index.getFirstAt(wall.getPosition().asLayer(3).pack()));
+        }
+    }
+}
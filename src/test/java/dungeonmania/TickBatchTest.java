@@ -0,0 +1,71 @@
+package dungeonmania;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.response.models.BatchDeltaResponse;
+import dungeonmania.response.models.BatchResponse;
+import dungeonmania.response.models.BattleSummaryResponse;
+import dungeonmania.response.models.DungeonDeltaResponse;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class TickBatchTest {
+
+    @Test
+    @DisplayName("Test a batch of actions ends in the same state as ticking one at a time")
+    public void testBatchMatchesSingleTicks() throws Exception {
+        DungeonManiaController single = new DungeonManiaController();
+        single.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown");
+        single.tick(Direction.DOWN);
+        DungeonResponse expected = single.tick(Direction.RIGHT);
+
+        DungeonManiaController batched = new DungeonManiaController();
+        batched.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown");
+        DungeonResponse actual = batched.tickBatch(Action.parseAll("move DOWN, move RIGHT"));
+
+        assertEquals(TestUtils.getPlayer(expected).get().getPosition(), TestUtils.getPlayer(actual).get().getPosition());
+        assertEquals(expected.getGoals(), actual.getGoals());
+    }
+
+    @Test
+    @DisplayName("Test battles are summarised per action and the batch stops once the player dies")
+    public void testBattleSummaries() throws Exception {
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_battleTest_basicMercenary", "c_battleTests_basicMercenaryPlayerDies");
+        BatchResponse res = dmc.tickBatch(List.of(Action.move(Direction.RIGHT), Action.move(Direction.RIGHT),
+                Action.move(Direction.LEFT)), true);
+
+        assertEquals(1, res.getActionsApplied());
+        assertEquals(1, res.getBattles().size());
+        BattleSummaryResponse battle = res.getBattles().get(0);
+        assertEquals(0, battle.getAction());
+        assertEquals("mercenary", battle.getEnemy());
+        assertTrue(battle.getRounds() > 0);
+        assertTrue(battle.getFinalPlayerHealth() <= 0);
+        assertEquals(0, TestUtils.countEntityOfType(res.getDungeon(), "player"));
+    }
+
+    @Test
+    @DisplayName("Test a batch answered as a delta only holds what changed since the client's version")
+    public void testBatchDelta() throws Exception {
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown");
+        DungeonDeltaResponse full = dmc.getDungeonDelta(-1);
+
+        BatchDeltaResponse res = dmc.tickBatch(Action.parseAll("move DOWN, move RIGHT"), false, full.getVersion());
+        assertEquals(2, res.getActionsApplied());
+        assertFalse(res.getDungeon().isFull());
+        assertEquals(full.getVersion(), res.getDungeon().getBaseVersion());
+        assertTrue(res.getDungeon().getAdded().isEmpty());
+        assertTrue(res.getDungeon().getChanged().stream().anyMatch(entity -> entity.getType().equals("player")
+                && entity.getPosition().equals(new Position(2, 2))));
+    }
+}
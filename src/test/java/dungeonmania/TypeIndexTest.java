@@ -0,0 +1,56 @@
+package dungeonmania;
+
+import dungeonmania.entities.*;
+import dungeonmania.util.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TypeIndexTest {
+
+    @Test
+    @DisplayName("Test type lookups follow entities as they are added and removed")
+    public void testAddAndRemove() {
+        Dungeon dungeon = new Dungeon();
+        Entity first = new FloorSwitch(new Position(0, 0), "switch");
+        Entity second = new FloorSwitch(new Position(1, 0), "switch");
+        Entity wall = new Wall(new Position(2, 0), "wall");
+        dungeon.addEntity(first);
+        dungeon.addEntity(wall);
+        dungeon.addEntity(second);
+
+        assertEquals(2, dungeon.getSwitchCount());
+        assertEquals(1, dungeon.getEntitiesOfType("wall").size());
+        assertSame(first, dungeon.getEntitiesOfType("switch").iterator().next());
+
+        dungeon.removeEntity(first);
+        assertEquals(1, dungeon.getSwitchCount());
+        assertSame(second, dungeon.getEntitiesOfType("switch").iterator().next());
+
+        dungeon.explode(new Position(2, 0));
+        assertTrue(dungeon.getEntitiesOfType("wall").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test entities move between types when their type changes")
+    public void testRetype() {
+        Dungeon dungeon = new Dungeon();
+        Player player = new Player(new Position(1, 1), 1, 10, "player");
+        Player older = new Player(new Position(2, 2), 1, 10, "player");
+        dungeon.setPlayer(player);
+        dungeon.addEntity(older);
+        assertNull(dungeon.getOlderPlayer());
+
+        older.setType("older_player");
+        assertSame(older, dungeon.getOlderPlayer());
+        assertEquals(1, dungeon.getEntitiesOfType("player").size());
+
+        // entities outside the dungeon are not picked up
+        new Player(new Position(3, 3), 1, 10, "player").setType("older_player");
+        assertEquals(1, dungeon.getEntitiesOfType("older_player").size());
+    }
+}